@@ -0,0 +1,133 @@
+package sk.coderama.ai.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A burst of {@code concurrency} requests shaped like the blocking request path: a little CPU, one JDBC query
+ * through a Hikari pool that takes {@code dbMillis} on the server, and a blocking call outside the database
+ * ({@code remoteMillis}, a payment provider or another service). "platform" runs them on 200 platform threads,
+ * Tomcat's default, "virtual" on one virtual thread each, as with {@code spring.threads.virtual.enabled}; the score
+ * is requests per second. Platform threads cap throughput near 200 / (dbMillis + remoteMillis); virtual threads
+ * move the limit to the pool, poolSize / dbMillis. Runs on in-memory H2 with a sleeping function by default; pass
+ * {@code -p jdbcUrl=jdbc:postgresql://localhost:5432/orderdb -p user=orderuser -p password=orderpass} to use
+ * pg_sleep on PostgreSQL. With {@code -p poolSize=10} the pool is the bottleneck either way and the modes tie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int CONCURRENCY = 2000;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param("jdbc:h2:mem:virtual_threads;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+    public String jdbcUrl;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    // Matches the virtual-threads profile
+    @Param("30")
+    public int poolSize;
+
+    @Param("2")
+    public int dbMillis;
+
+    @Param("20")
+    public int remoteMillis;
+
+    // Request handling around the query, in Blackhole.consumeCPU tokens
+    @Param("2000")
+    public int work;
+
+    private HikariDataSource dataSource;
+    private ExecutorService executor;
+    private String sleepSql;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    @Setup
+    public void setUp() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(user);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        dataSource = new HikariDataSource(config);
+
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE ALIAS IF NOT EXISTS SLEEP_MS FOR 'java.lang.Thread.sleep(long)'");
+            }
+            sleepSql = "CALL SLEEP_MS(?)";
+        } else {
+            sleepSql = "SELECT pg_sleep(? / 1000.0)";
+        }
+
+        executor = threads.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        dataSource.close();
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " requests failed");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            executor.execute(() -> {
+                try {
+                    request();
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void request() throws SQLException, InterruptedException {
+        Blackhole.consumeCPU(work);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sleepSql)) {
+            statement.setLong(1, dbMillis);
+            statement.execute();
+        }
+        Thread.sleep(remoteMillis);
+        Blackhole.consumeCPU(work);
+    }
+}
@@ -0,0 +1,132 @@
+package sk.coderama.ai.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import sk.coderama.ai.dto.response.OrderItemResponse;
+import sk.coderama.ai.dto.response.OrderResponse;
+import sk.coderama.ai.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson work per order: the OrderResponse body the REST API writes, the OrderEvent subclasses the binder
+ * writes for RabbitMQ, reading an OrderCreatedEvent back as its consumer does, and the event id. The mapper
+ * is built the way Spring Boot builds its own (java.time support, ISO dates), with 5 items per order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderEventSerializationBenchmark {
+
+    private static final int ITEMS = 5;
+
+    private ObjectMapper objectMapper;
+    private OrderResponse orderResponse;
+    private OrderCreatedEvent createdEvent;
+    private OrderCompletedEvent completedEvent;
+    private OrderExpiredEvent expiredEvent;
+    private byte[] createdEventJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal total = new BigDecimal("149.95");
+
+        List<OrderItemResponse> itemResponses = new ArrayList<>();
+        List<OrderCreatedEvent.OrderItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemResponses.add(OrderItemResponse.builder()
+                    .id((long) i + 1)
+                    .orderId(1L)
+                    .productId((long) i + 1)
+                    .quantity(i + 1)
+                    .price(new BigDecimal("29.99"))
+                    .createdAt(now)
+                    .build());
+            itemDtos.add(OrderCreatedEvent.OrderItemDto.builder()
+                    .productId((long) i + 1)
+                    .quantity(i + 1)
+                    .price(new BigDecimal("29.99"))
+                    .build());
+        }
+
+        orderResponse = OrderResponse.builder()
+                .id(1L)
+                .userId(1L)
+                .total(total)
+                .status(OrderStatus.PENDING)
+                .items(itemResponses)
+                .version(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        createdEvent = OrderCreatedEvent.builder()
+                .eventId(OrderEvent.generateEventId())
+                .orderId(1L)
+                .userId(1L)
+                .total(total)
+                .timestamp(now)
+                .status(OrderStatus.PENDING)
+                .items(itemDtos)
+                .build();
+        completedEvent = OrderCompletedEvent.builder()
+                .eventId(OrderEvent.generateEventId())
+                .orderId(1L)
+                .userId(1L)
+                .total(total)
+                .timestamp(now)
+                .completedAt(now)
+                .paymentReference("PAY-" + OrderEvent.generateEventId())
+                .build();
+        expiredEvent = OrderExpiredEvent.builder()
+                .eventId(OrderEvent.generateEventId())
+                .orderId(1L)
+                .userId(1L)
+                .total(total)
+                .timestamp(now)
+                .previousStatus(OrderStatus.PROCESSING)
+                .expiredAt(now)
+                .reason("Order not completed within 10 minutes")
+                .build();
+        createdEventJson = objectMapper.writeValueAsBytes(createdEvent);
+    }
+
+    @Benchmark
+    public byte[] writeOrderResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(orderResponse);
+    }
+
+    @Benchmark
+    public byte[] writeOrderCreatedEvent() throws Exception {
+        return objectMapper.writeValueAsBytes(createdEvent);
+    }
+
+    @Benchmark
+    public byte[] writeOrderCompletedEvent() throws Exception {
+        return objectMapper.writeValueAsBytes(completedEvent);
+    }
+
+    @Benchmark
+    public byte[] writeOrderExpiredEvent() throws Exception {
+        return objectMapper.writeValueAsBytes(expiredEvent);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent readOrderCreatedEvent() throws Exception {
+        return objectMapper.readValue(createdEventJson, OrderCreatedEvent.class);
+    }
+
+    @Benchmark
+    public String generateEventId() {
+        return OrderEvent.generateEventId();
+    }
+}
@@ -0,0 +1,75 @@
+package sk.coderama.ai.notification;
+
+import org.openjdk.jmh.annotations.*;
+import sk.coderama.ai.entity.NotificationTemplate;
+import sk.coderama.ai.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render throughput of precompiled templates versus the String.format calls they replaced,
+ * plus the bytes each approach stores per notification row (printed once per trial).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationTemplateBenchmark {
+
+    private NotificationTemplateRegistry registry;
+    private Long orderId;
+    private BigDecimal total;
+    private String paymentReference;
+    private String completedParams;
+    private String expiredParams;
+
+    @Setup
+    public void setUp() {
+        registry = new NotificationTemplateRegistry();
+        orderId = 1_234_567L;
+        total = new BigDecimal("1549.98");
+        paymentReference = "PAY-" + UUID.randomUUID();
+        completedParams = NotificationTemplateRegistry.encodeParams(total, paymentReference);
+        expiredParams = NotificationTemplateRegistry.encodeParams(
+                OrderStatus.PROCESSING, "Order not completed within 10 minutes");
+
+        String completedMessage = formatCompleted();
+        String expiredMessage = String.format(
+                "Your order #%d has expired. Previous status: %s. Reason: %s",
+                orderId, OrderStatus.PROCESSING, "Order not completed within 10 minutes");
+        System.out.printf("%nBytes stored per notification (message text -> template_id + params):%n");
+        System.out.printf("  ORDER_COMPLETED: %d -> %d%n", utf8(completedMessage), 2 + utf8(completedParams));
+        System.out.printf("  ORDER_EXPIRED:   %d -> %d%n", utf8(expiredMessage), 2 + utf8(expiredParams));
+    }
+
+    @Benchmark
+    public String formatCompleted() {
+        return String.format(
+                "Your order #%d has been successfully completed! Total: $%s. Payment Reference: %s",
+                orderId, total, paymentReference);
+    }
+
+    @Benchmark
+    public String renderCompleted() {
+        return registry.render(NotificationTemplate.ORDER_COMPLETED, orderId, completedParams);
+    }
+
+    @Benchmark
+    public String renderExpired() {
+        return registry.render(NotificationTemplate.ORDER_EXPIRED, orderId, expiredParams);
+    }
+
+    @Benchmark
+    public String encodeCompletedParams() {
+        return NotificationTemplateRegistry.encodeParams(total, paymentReference);
+    }
+
+    private static int utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
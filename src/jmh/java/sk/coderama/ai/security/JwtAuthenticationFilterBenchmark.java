@@ -0,0 +1,137 @@
+package sk.coderama.ai.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import sk.coderama.ai.service.TokenRevocationService;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication: the old path (key and parser rebuilt, token parsed
+ * twice) against the filter with a prebuilt parser, with and without the verified-token cache.
+ * The filter runs its revocation check against a Bloom filter holding 100k revoked ids.
+ * The user lookup is stubbed so only token handling is measured; the legacy path also skips
+ * building the authentication, so its figure is a lower bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGenerationThatIsLongEnoughForHS256";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private UserDetailsService userDetailsService;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        UserPrincipal user = new UserPrincipal(1L, "bench@test.com", "irrelevant");
+        userDetailsService = email -> user;
+        UserPrincipalCache principalCache = new UserPrincipalCache(userDetailsService, 10_000, Duration.ofMinutes(5));
+
+        TokenRevocationService revocations = new InMemoryRevocations(100_000);
+
+        JwtTokenProvider uncached = new JwtTokenProvider(SECRET, 900_000L, 604_800_000L, 0);
+        JwtTokenProvider cached = new JwtTokenProvider(SECRET, 900_000L, 604_800_000L, 10_000);
+        uncachedFilter = new JwtAuthenticationFilter(uncached, principalCache, revocations);
+        cachedFilter = new JwtAuthenticationFilter(cached, principalCache, revocations);
+
+        token = cached.generateToken(user);
+        request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public UserDetails legacyDoubleParse() {
+        boolean valid;
+        try {
+            Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token);
+            valid = true;
+        } catch (Exception e) {
+            valid = false;
+        }
+        if (!valid) {
+            return null;
+        }
+        Claims claims = Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token).getPayload();
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
+    @Benchmark
+    public Object filterUncached() throws Exception {
+        uncachedFilter.doFilter(request, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        cachedFilter.doFilter(request, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    /** Bloom filter pre-filled with revoked ids, as in production; a "maybe" is answered from a set. */
+    private static final class InMemoryRevocations implements TokenRevocationService {
+
+        private final JtiBloomFilter filter;
+        private final Set<String> revoked = new HashSet<>();
+
+        InMemoryRevocations(int revokedCount) {
+            filter = new JtiBloomFilter(revokedCount, 0.001);
+            for (int i = 0; i < revokedCount; i++) {
+                revoke(UUID.randomUUID().toString(), null);
+            }
+        }
+
+        @Override
+        public boolean revoke(String jti, Date expiresAt) {
+            filter.put(jti);
+            return revoked.add(jti);
+        }
+
+        @Override
+        public boolean isRevoked(String jti) {
+            return filter.mightContain(jti) && revoked.contains(jti);
+        }
+
+        @Override
+        public void syncRecentRevocations() {
+        }
+
+        @Override
+        public void rebuild() {
+        }
+    }
+
+    private static SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+}
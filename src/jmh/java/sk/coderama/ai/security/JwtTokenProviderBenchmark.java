@@ -0,0 +1,64 @@
+package sk.coderama.ai.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation in JwtTokenProvider alone, without the filter around it: validation with the
+ * verified-token cache disabled (HMAC and claims parsing on every call) and enabled (a cache hit), and
+ * issuing an access token as login and refresh do. The cached case also runs on 8 threads against a cache
+ * full of other users' tokens, as every authenticated request looks its token up there; its time per
+ * operation should stay flat as threads are added, up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGenerationThatIsLongEnoughForHS256";
+
+    private JwtTokenProvider uncached;
+    private JwtTokenProvider cached;
+    private UserPrincipal user;
+    private String token;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtTokenProvider(SECRET, 900_000L, 604_800_000L, 0);
+        cached = new JwtTokenProvider(SECRET, 900_000L, 604_800_000L, 10_000);
+        user = new UserPrincipal(1L, "bench@test.com", "irrelevant");
+        token = cached.generateToken(user);
+        tokens = new String[1_000];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = cached.generateToken(new UserPrincipal((long) i, "bench" + i + "@test.com", "irrelevant"));
+            cached.validateToken(tokens[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean validateUncached() {
+        return uncached.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return cached.validateToken(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean validateCachedContended() {
+        return cached.validateToken(tokens[ThreadLocalRandom.current().nextInt(tokens.length)]);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncached.generateToken(user);
+    }
+}
@@ -0,0 +1,121 @@
+package sk.coderama.ai.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import sk.coderama.ai.dto.request.LoginRequest;
+import sk.coderama.ai.dto.response.JwtResponse;
+import sk.coderama.ai.exception.TooManyRequestsException;
+import sk.coderama.ai.service.impl.AuthServiceImpl;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A login flood next to ordinary API work. In each group eight threads log in as fast as they
+ * can while two threads do a fixed amount of CPU work standing in for order requests. With BCrypt
+ * on the request threads ("direct") the logins take the whole CPU; with the bounded pool
+ * ("bounded") excess logins get a 429 (modelled as a 1 ms client back-off) and the other work
+ * keeps its throughput. Compare the *Orders rows of both groups; *:served and *:rejected count logins.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginThroughputBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGenerationThatIsLongEnoughForHS256";
+    private static final String EMAIL = "bench@test.com";
+    private static final String PASSWORD = "password123";
+
+    @Param("10")
+    public int strength;
+
+    private AuthServiceImpl directAuth;
+    private AuthServiceImpl boundedAuth;
+    private BoundedPasswordEncoder boundedEncoder;
+    private LoginRequest request;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(SECRET, 900_000L, 604_800_000L, 0);
+        PasswordEncoder direct = new BCryptPasswordEncoder(strength);
+        boundedEncoder = new BoundedPasswordEncoder(
+                strength, Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 4, Duration.ofSeconds(2));
+
+        directAuth = authService(direct, jwtTokenProvider);
+        boundedAuth = authService(boundedEncoder, jwtTokenProvider);
+        request = new LoginRequest(EMAIL, PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        boundedEncoder.close();
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(8)
+    public JwtResponse directLogin(LoginCounters counters) {
+        JwtResponse response = directAuth.login(request);
+        counters.served++;
+        return response;
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(2)
+    public void directOrders() {
+        Blackhole.consumeCPU(10_000);
+    }
+
+    @Benchmark
+    @Group("bounded")
+    @GroupThreads(8)
+    public JwtResponse boundedLogin(LoginCounters counters) throws InterruptedException {
+        try {
+            JwtResponse response = boundedAuth.login(request);
+            counters.served++;
+            return response;
+        } catch (TooManyRequestsException e) {
+            counters.rejected++;
+            Thread.sleep(1);
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Group("bounded")
+    @GroupThreads(2)
+    public void boundedOrders() {
+        Blackhole.consumeCPU(10_000);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class LoginCounters {
+        public long served;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            served = 0;
+            rejected = 0;
+        }
+    }
+
+    private static AuthServiceImpl authService(PasswordEncoder encoder, JwtTokenProvider jwtTokenProvider) {
+        String hash = encoder.encode(PASSWORD);
+        UserDetailsService users = email -> new UserPrincipal(1L, EMAIL, hash);
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(users);
+        return new AuthServiceImpl(null, encoder, new ProviderManager(provider), jwtTokenProvider, null, null);
+    }
+}
@@ -0,0 +1,91 @@
+package sk.coderama.ai.security;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import sk.coderama.ai.config.RateLimitProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Overhead of {@link RateLimitFilter} per request with eight concurrent threads: every thread
+ * on its own bucket (the normal case), all threads hammering one bucket (worst-case CAS
+ * contention), and a path that matches no rule. Limits are set high enough that nothing is
+ * rejected, so only the bookkeeping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private RateLimitFilter filter;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setPath("/api/orders/**");
+        rule.setCapacity(1_000_000_000);
+        rule.setPeriod(Duration.ofSeconds(1));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(rule));
+        filter = new RateLimitFilter(properties);
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private static final AtomicLong NEXT_USER = new AtomicLong();
+
+        MockHttpServletRequest ownBucket;
+        MockHttpServletRequest sharedBucket;
+        MockHttpServletRequest unmatched;
+        MockHttpServletResponse response;
+        UsernamePasswordAuthenticationToken own;
+        UsernamePasswordAuthenticationToken shared;
+
+        @Setup
+        public void setUp() {
+            UserPrincipal user = UserPrincipal.fromToken(NEXT_USER.incrementAndGet(), "bench@test.com");
+            UserPrincipal everyone = UserPrincipal.fromToken(0L, "shared@test.com");
+            own = new UsernamePasswordAuthenticationToken(user, null, List.of());
+            shared = new UsernamePasswordAuthenticationToken(everyone, null, List.of());
+            ownBucket = new MockHttpServletRequest("POST", "/api/orders");
+            sharedBucket = new MockHttpServletRequest("POST", "/api/orders");
+            unmatched = new MockHttpServletRequest("GET", "/swagger-ui/index.html");
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public int ownBucket(Client client) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(client.own);
+        filter.doFilter(client.ownBucket, client.response, NO_OP_CHAIN);
+        return client.response.getStatus();
+    }
+
+    @Benchmark
+    public int sharedBucket(Client client) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(client.shared);
+        filter.doFilter(client.sharedBucket, client.response, NO_OP_CHAIN);
+        return client.response.getStatus();
+    }
+
+    @Benchmark
+    public int noMatchingRule(Client client) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(client.own);
+        filter.doFilter(client.unmatched, client.response, NO_OP_CHAIN);
+        return client.response.getStatus();
+    }
+}
@@ -0,0 +1,164 @@
+package sk.coderama.ai.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight threads updating a handful of hot rows, the way concurrent admin edits and order handlers hit the same
+ * product or order. "optimistic" reads the row, does some work and writes with a version check, retrying up to
+ * three times like the service layer; "pessimistic" takes a row lock with SELECT ... FOR UPDATE for the same
+ * read-work-write. Each operation is one logical update; *:conflicts are lost version checks and *:exhausted
+ * the updates that gave up after the last attempt. Runs on in-memory H2 by default; pass
+ * {@code -p jdbcUrl=jdbc:postgresql://localhost:5432/orderdb -p user=orderuser -p password=orderpass}
+ * to measure PostgreSQL, where the difference matters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class HotRowContentionBenchmark {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Param("jdbc:h2:mem:contention;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+    public String jdbcUrl;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    @Param({"1", "16"})
+    public int hotRows;
+
+    // Work between the read and the write, in Blackhole.consumeCPU tokens
+    @Param("2000")
+    public int work;
+
+    @Setup
+    public void createTable() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS contention_bench");
+            statement.execute("CREATE TABLE contention_bench (id BIGINT PRIMARY KEY, stock INT NOT NULL, "
+                    + "version BIGINT NOT NULL)");
+            statement.execute("INSERT INTO contention_bench SELECT x, 1000000, 0 FROM "
+                    + (jdbcUrl.startsWith("jdbc:h2:") ? "SYSTEM_RANGE(1, " + hotRows + ")"
+                            : "generate_series(1, " + hotRows + ") AS x"));
+        }
+    }
+
+    @TearDown
+    public void dropTable() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE contention_bench");
+        }
+    }
+
+    @Benchmark
+    public boolean optimistic(Session session, Counters counters) throws SQLException {
+        long id = session.nextId(hotRows);
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            int stock;
+            long version;
+            try (ResultSet rs = query(session.selectVersioned, id)) {
+                rs.next();
+                stock = rs.getInt(1);
+                version = rs.getLong(2);
+            }
+            Blackhole.consumeCPU(work);
+
+            session.updateVersioned.setInt(1, stock - 1);
+            session.updateVersioned.setLong(2, id);
+            session.updateVersioned.setLong(3, version);
+            int updated = session.updateVersioned.executeUpdate();
+            session.connection.commit();
+            if (updated == 1) {
+                return true;
+            }
+            counters.conflicts++;
+        }
+        counters.exhausted++;
+        return false;
+    }
+
+    @Benchmark
+    public boolean pessimistic(Session session) throws SQLException {
+        long id = session.nextId(hotRows);
+        int stock;
+        try (ResultSet rs = query(session.selectForUpdate, id)) {
+            rs.next();
+            stock = rs.getInt(1);
+        }
+        Blackhole.consumeCPU(work);
+
+        session.update.setInt(1, stock - 1);
+        session.update.setLong(2, id);
+        int updated = session.update.executeUpdate();
+        session.connection.commit();
+        return updated == 1;
+    }
+
+    private static ResultSet query(PreparedStatement statement, long id) throws SQLException {
+        statement.setLong(1, id);
+        return statement.executeQuery();
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement selectVersioned;
+        PreparedStatement updateVersioned;
+        PreparedStatement selectForUpdate;
+        PreparedStatement update;
+
+        @Setup
+        public void open(HotRowContentionBenchmark benchmark) throws SQLException {
+            connection = DriverManager.getConnection(benchmark.jdbcUrl, benchmark.user, benchmark.password);
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            selectVersioned = connection.prepareStatement("SELECT stock, version FROM contention_bench WHERE id = ?");
+            updateVersioned = connection.prepareStatement(
+                    "UPDATE contention_bench SET stock = ?, version = version + 1 WHERE id = ? AND version = ?");
+            selectForUpdate = connection.prepareStatement("SELECT stock FROM contention_bench WHERE id = ? FOR UPDATE");
+            update = connection.prepareStatement(
+                    "UPDATE contention_bench SET stock = ?, version = version + 1 WHERE id = ?");
+        }
+
+        @TearDown
+        public void close() throws SQLException {
+            connection.close();
+        }
+
+        long nextId(int hotRows) {
+            return ThreadLocalRandom.current().nextInt(hotRows) + 1;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long conflicts;
+        public long exhausted;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+            exhausted = 0;
+        }
+    }
+}
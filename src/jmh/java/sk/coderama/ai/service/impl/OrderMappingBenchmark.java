@@ -0,0 +1,68 @@
+package sk.coderama.ai.service.impl;
+
+import org.openjdk.jmh.annotations.*;
+import sk.coderama.ai.dto.response.OrderResponse;
+import sk.coderama.ai.entity.Order;
+import sk.coderama.ai.entity.OrderItem;
+import sk.coderama.ai.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-order CPU work of the order endpoints outside the database: building the response DTO and
+ * summing the line totals in BigDecimal, for orders of 1, 10 and 100 items. Run with the GC profiler
+ * (on by default) to see the bytes each order costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int items;
+
+    private Order order;
+
+    @Setup
+    public void createOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderItem> orderItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            orderItems.add(OrderItem.builder()
+                    .id((long) i + 1)
+                    .orderId(1L)
+                    .productId((long) i % 20 + 1)
+                    .quantity(i % 5 + 1)
+                    .price(new BigDecimal("19.99").add(BigDecimal.valueOf(i, 2)))
+                    .createdAt(now)
+                    .build());
+        }
+        order = Order.builder()
+                .id(1L)
+                .userId(1L)
+                .status(OrderStatus.PENDING)
+                .items(orderItems)
+                .version(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        order.setTotal(OrderServiceImpl.calculateTotal(orderItems));
+    }
+
+    @Benchmark
+    public OrderResponse mapToResponse() {
+        return OrderServiceImpl.mapToResponse(order);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotal() {
+        return OrderServiceImpl.calculateTotal(order.getItems());
+    }
+}
@@ -0,0 +1,305 @@
+package sk.coderama.ai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import sk.coderama.ai.entity.OrderStatus;
+import sk.coderama.ai.event.OrderCreatedEvent;
+import sk.coderama.ai.event.OrderEvent;
+import sk.coderama.ai.notification.NotificationCoalescer;
+import sk.coderama.ai.service.OrderExpirationService;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput of the order event pipeline. Boots the application like {@link LoadGenerator}, seeds PENDING orders
+ * straight into the database and publishes one OrderCreatedEvent per order, all at once or at a Poisson rate.
+ * The real OrderCreatedHandler moves each order to PROCESSING, waits the simulated payment and completes half
+ * of them, and OrderCompletedHandler stores the notification of those. A second phase expires a batch of
+ * backdated orders with OrderExpirationService and runs their events through OrderExpiredHandler.
+ * <p>
+ * Reports events per second, latency from publishing an event until its handler returned (for completions:
+ * until the OrderCompletedEvent it led to was handled) and the JDBC statements and transactions Hibernate ran
+ * per event, and writes a percentile distribution per stage ({@code pipeline-<stage>.hgrm}, in milliseconds).
+ */
+public final class EventPipelineBenchmark {
+
+    private static final String CREATED = "order.created";
+    private static final String COMPLETED = "order.completed";
+    private static final String EXPIRED = "order.expired";
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final BigDecimal ORDER_TOTAL = new BigDecimal("49.90");
+
+    private final PipelineOptions options;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Statistics statistics;
+    private final ConfigurableApplicationContext app;
+
+    private final Map<String, Stage> stages = Map.of(
+            CREATED, new Stage("created"),
+            COMPLETED, new Stage("completed"),
+            EXPIRED, new Stage("expired"));
+    private final Map<Long, Long> publishedAt = new ConcurrentHashMap<>();
+    private final AtomicLong lastProgress = new AtomicLong(System.nanoTime());
+    private volatile long expirationStartedAt;
+
+    private EventPipelineBenchmark(PipelineOptions options, ConfigurableApplicationContext app) {
+        this.options = options;
+        this.app = app;
+        this.jdbcTemplate = app.getBean(JdbcTemplate.class);
+        this.objectMapper = app.getBean(ObjectMapper.class);
+        this.meterRegistry = app.getBean(MeterRegistry.class);
+        this.statistics = app.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public static void main(String[] args) throws Exception {
+        PipelineOptions options;
+        try {
+            options = PipelineOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        ConfigurableApplicationContext app = LoadGenerator.boot(options.paymentDelay(),
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN");
+        try {
+            EventPipelineBenchmark benchmark = new EventPipelineBenchmark(options, app);
+            try (EventPump pump = new EventPump(app.getBean(OutputDestination.class),
+                    app.getBean(InputDestination.class), options.consumers(), benchmark::delivered)) {
+                benchmark.run(pump);
+            }
+        } finally {
+            app.close();
+        }
+    }
+
+    private void run(EventPump pump) throws IOException, InterruptedException {
+        long userId = seedUser();
+        List<Long> orderIds = seedOrders(userId, options.events(), LocalDateTime.now());
+        // Well past the expiration threshold, so the expiration run picks these and nothing else
+        List<Long> expiredIds = seedOrders(userId, options.expired(), LocalDateTime.now().minusHours(1));
+        System.out.printf("Seeded %d orders to process and %d to expire; payment delay %s, %d consumer(s) "
+                + "per binding%n", orderIds.size(), expiredIds.size(), options.paymentDelay(), options.consumers());
+
+        List<Report> reports = new ArrayList<>();
+        reports.add(processOrders(pump, userId, orderIds));
+        if (!expiredIds.isEmpty()) {
+            reports.add(expireOrders());
+        }
+
+        Path outputDir = LoadGenerator.runDirectory(options.outputDir());
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(outputDir.resolve("summary.txt")))) {
+            for (Report report : reports) {
+                report.print(System.out);
+                report.print(summary);
+            }
+        }
+        for (Stage stage : stages.values()) {
+            if (stage.latency.getTotalCount() > 0) {
+                try (PrintStream hgrm = new PrintStream(Files.newOutputStream(
+                        outputDir.resolve("pipeline-" + stage.name + ".hgrm")))) {
+                    stage.latency.outputPercentileDistribution(hgrm, 1000.0);
+                }
+            }
+        }
+        System.out.println("Histograms written to " + outputDir.toAbsolutePath());
+    }
+
+    private Report processOrders(EventPump pump, long userId, List<Long> orderIds) throws InterruptedException {
+        // Serialized up front, so publishing costs the same at any rate
+        List<Message<byte[]>> messages = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            messages.add(message(OrderCreatedEvent.builder()
+                    .eventId(OrderEvent.generateEventId())
+                    .orderId(orderId)
+                    .userId(userId)
+                    .total(ORDER_TOTAL)
+                    .timestamp(LocalDateTime.now())
+                    .status(OrderStatus.PENDING)
+                    .items(Collections.emptyList())
+                    .build()));
+        }
+
+        statistics.clear();
+        long completedBefore = lifecycleCount(OrderStatus.COMPLETED);
+        double meanGapNanos = options.rate() > 0 ? TimeUnit.SECONDS.toNanos(1) / options.rate() : 0;
+        long start = System.nanoTime();
+        long next = start;
+        for (int i = 0; i < messages.size(); i++) {
+            if (meanGapNanos > 0) {
+                long now;
+                while ((now = System.nanoTime()) < next) {
+                    LockSupport.parkNanos(next - now);
+                }
+            }
+            // Latency counts from the scheduled arrival, so a publisher falling behind does not hide queueing
+            publishedAt.put(orderIds.get(i), meanGapNanos > 0 ? next : System.nanoTime());
+            pump.publish(CREATED, messages.get(i));
+            next += (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+        }
+
+        awaitHandled(stages.get(CREATED), orderIds.size());
+        // Every created event has been handled, so the completions it led to are known and already published
+        awaitHandled(stages.get(COMPLETED), lifecycleCount(OrderStatus.COMPLETED) - completedBefore);
+        return new Report("OrderCreatedEvent", orderIds.size(), start,
+                List.of(stages.get(CREATED), stages.get(COMPLETED)),
+                statistics.getPrepareStatementCount(), statistics.getTransactionCount());
+    }
+
+    private Report expireOrders() throws InterruptedException {
+        statistics.clear();
+        long expiredBefore = lifecycleCount(OrderStatus.EXPIRED);
+        long start = System.nanoTime();
+        expirationStartedAt = start;
+        app.getBean(OrderExpirationService.class).expireOldOrders();
+        long expired = lifecycleCount(OrderStatus.EXPIRED) - expiredBefore;
+        awaitHandled(stages.get(EXPIRED), expired);
+        // With coalescing on, the handler only queued the notifications; the digests are part of the cost
+        app.getBean(NotificationCoalescer.class).flushAll();
+        return new Report("expired order", expired, start, List.of(stages.get(EXPIRED)),
+                statistics.getPrepareStatementCount(), statistics.getTransactionCount());
+    }
+
+    private void delivered(String destination, Message<byte[]> message) {
+        Stage stage = stages.get(destination);
+        if (stage == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long orderId = orderId(message);
+        Long startedAt = EXPIRED.equals(destination) ? Long.valueOf(expirationStartedAt) : publishedAt.get(orderId);
+        if (startedAt != null) {
+            stage.record(now - startedAt, now);
+        }
+        lastProgress.set(now);
+    }
+
+    private void awaitHandled(Stage stage, long expected) throws InterruptedException {
+        while (stage.handled.get() < expected) {
+            if (System.nanoTime() - lastProgress.get() > options.stallTimeout().toNanos()) {
+                throw new IllegalStateException("No event handled for " + options.stallTimeout() + ", "
+                        + stage.name + " at " + stage.handled.get() + " of " + expected);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private long lifecycleCount(OrderStatus outcome) {
+        Timer timer = meterRegistry.find("order.lifecycle.total").tag("outcome", outcome.name()).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private long seedUser() {
+        String email = "pipeline-" + System.currentTimeMillis() + "@load.test";
+        jdbcTemplate.update("INSERT INTO users (name, email, password) VALUES (?, ?, ?)",
+                "Pipeline Benchmark", email, "not-a-password-hash");
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    private List<Long> seedOrders(long userId, int count, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt.truncatedTo(ChronoUnit.SECONDS));
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{userId, ORDER_TOTAL, timestamp, timestamp});
+            if (rows.size() == SEED_BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO orders (user_id, total, status, created_at, updated_at) "
+                        + "VALUES (?, ?, 'PENDING', ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM orders WHERE user_id = ? AND created_at = ? ORDER BY id",
+                Long.class, userId, timestamp);
+    }
+
+    private Message<byte[]> message(Object event) {
+        try {
+            return MessageBuilder.withPayload(objectMapper.writeValueAsBytes(event)).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long orderId(Message<byte[]> message) {
+        try {
+            return objectMapper.readTree(message.getPayload()).get("orderId").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Stage {
+
+        private final String name;
+        // Auto-resizing, a backlog can take longer than any fixed bound
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final AtomicLong handled = new AtomicLong();
+        private final AtomicLong lastHandledAt = new AtomicLong();
+
+        private Stage(String name) {
+            this.name = name;
+        }
+
+        private void record(long latencyNanos, long now) {
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            lastHandledAt.accumulateAndGet(now, Math::max);
+            handled.incrementAndGet();
+        }
+    }
+
+    private record Report(String unit, long events, long startedAt, List<Stage> stages,
+                          long statements, long transactions) {
+
+        void print(PrintStream out) {
+            long finishedAt = stages.stream().mapToLong(s -> s.lastHandledAt.get()).max().orElse(startedAt);
+            double seconds = Math.max(finishedAt - startedAt, 1) / 1e9;
+            out.printf("%n%d %ss through the pipeline in %.2f s: %.1f events/s%n", events, unit, seconds,
+                    events / seconds);
+            out.printf("%-10s %9s %9s %9s %9s %9s %9s%n",
+                    "stage", "count", "events/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (Stage stage : stages) {
+                Histogram latency = stage.latency;
+                double stageSeconds = Math.max(stage.lastHandledAt.get() - startedAt, 1) / 1e9;
+                out.printf("%-10s %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n", stage.name, latency.getTotalCount(),
+                        latency.getTotalCount() / stageSeconds, latency.getValueAtPercentile(50.0) / 1000.0,
+                        latency.getValueAtPercentile(99.0) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0,
+                        latency.getMaxValue() / 1000.0);
+            }
+            out.printf("DB statements: %d (%.2f per %s), transactions: %d (%.2f per %s)%n",
+                    statements, (double) statements / Math.max(events, 1), unit,
+                    transactions, (double) transactions / Math.max(events, 1), unit);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package sk.coderama.ai.loadtest;
+
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Plays the broker. On its own the test binder calls a consumer directly from the publishing thread, so payment
+ * would run inside the HTTP request that created the order. The generator therefore moves every input binding to
+ * a destination of its own ({@link #inputBindingArguments()}), and the pump carries each published event there on
+ * {@code consumers} threads, the counterpart of RabbitMQ listener concurrency. Orders move through PROCESSING to
+ * COMPLETED asynchronously, as in production, and a backlog builds up in the same place.
+ */
+final class EventPump implements AutoCloseable {
+
+    // Destination in application.properties -> consumer binding
+    private static final Map<String, String> INPUT_BINDINGS = Map.of(
+            "order.created", "orderCreated-in-0",
+            "order.completed", "orderCompleted-in-0",
+            "order.expired", "orderExpired-in-0",
+            "product.changed", "productChanged-in-0"
+    );
+    private static final String CONSUMER_SUFFIX = ".consumer";
+    private static final long RECEIVE_TIMEOUT_MILLIS = 100;
+
+    private final OutputDestination output;
+    private final InputDestination input;
+    private final BiConsumer<String, Message<byte[]>> onDelivered;
+    private final List<Thread> forwarders = new ArrayList<>();
+    private final Map<String, ExecutorService> consumers = new HashMap<>();
+    private volatile boolean running = true;
+
+    EventPump(OutputDestination output, InputDestination input, int consumerThreads) {
+        this(output, input, consumerThreads, (destination, message) -> {
+        });
+    }
+
+    /**
+     * @param onDelivered called on the consumer thread once the handler returned, with the destination the app
+     *                    published to
+     */
+    EventPump(OutputDestination output, InputDestination input, int consumerThreads,
+              BiConsumer<String, Message<byte[]>> onDelivered) {
+        this.output = output;
+        this.input = input;
+        this.onDelivered = onDelivered;
+        for (String destination : INPUT_BINDINGS.keySet()) {
+            ExecutorService consumer = Executors.newFixedThreadPool(consumerThreads);
+            consumers.put(destination, consumer);
+            forwarders.add(Thread.ofPlatform()
+                    .name("event-pump-" + destination)
+                    .daemon()
+                    .start(() -> forward(destination, consumer)));
+        }
+    }
+
+    private void forward(String destination, ExecutorService consumer) {
+        while (running) {
+            Message<byte[]> message = output.receive(RECEIVE_TIMEOUT_MILLIS, destination);
+            if (message != null) {
+                consumer.execute(() -> deliver(message, destination));
+            }
+        }
+    }
+
+    // Queues an event as if the app had published it, behind whatever the consumers still have to work through
+    void publish(String destination, Message<byte[]> message) {
+        consumers.get(destination).execute(() -> deliver(message, destination));
+    }
+
+    private void deliver(Message<byte[]> message, String destination) {
+        try {
+            input.send(message, destination + CONSUMER_SUFFIX);
+        } catch (RuntimeException e) {
+            System.err.println("Handler for " + destination + " failed: " + e);
+        }
+        onDelivered.accept(destination, message);
+    }
+
+    static List<String> inputBindingArguments() {
+        return INPUT_BINDINGS.entrySet().stream()
+                .map(e -> "--spring.cloud.stream.bindings." + e.getValue() + ".destination=" + e.getKey() + CONSUMER_SUFFIX)
+                .toList();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        for (Thread forwarder : forwarders) {
+            forwarder.join();
+        }
+        // Events still queued are dropped; the run is over and the app is about to stop
+        for (ExecutorService consumer : consumers.values()) {
+            consumer.shutdownNow();
+            consumer.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package sk.coderama.ai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import sk.coderama.ai.AiApplication;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator. Boots the application in-process with the test profile (H2, test binder, rate
+ * limiting off), registers users and creates products through the API, then sends requests at Poisson-distributed
+ * arrival times: the arrival rate is fixed and does not slow down when the server does, unlike a fixed number of
+ * looping clients. Requests run on pooled platform threads, never on virtual threads, which would share carrier
+ * threads with an application running on them. Latency is measured from the scheduled arrival,
+ * so queueing in the generator and in the server both count.
+ * <p>
+ * Writes an HdrHistogram interval log ({@code latency.hlog}, one tag per operation) and a percentile distribution
+ * per operation ({@code <operation>.hgrm}, in milliseconds) to a timestamped directory under {@code --output},
+ * and prints a summary. Needs no database, broker or running server.
+ */
+public final class LoadGenerator {
+
+    private static final String PASSWORD = "password123";
+    private static final String[] WORDS = {
+            "wireless", "keyboard", "mouse", "monitor", "laptop", "cable", "charger", "speaker",
+            "headphones", "camera", "tablet", "router", "printer", "adapter", "stand", "lamp"
+    };
+    private static final int RECENT_ORDERS = 1024;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadOptions options;
+    private final URI baseUri;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final List<Session> sessions = new ArrayList<>();
+    private final List<Product> products = new ArrayList<>();
+    private final AtomicLongArray recentOrders = new AtomicLongArray(RECENT_ORDERS);
+    private final AtomicInteger ordersCreated = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private LoadGenerator(LoadOptions options, URI baseUri) {
+        this.options = options;
+        this.baseUri = baseUri;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+        for (Operation operation : options.mix().keySet()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        ConfigurableApplicationContext app = options.profiles().isEmpty()
+                ? boot(options.paymentDelay())
+                : boot(options.paymentDelay(), "--spring.profiles.active=" + options.profiles());
+        try (EventPump ignored = new EventPump(app.getBean(OutputDestination.class),
+                app.getBean(InputDestination.class), options.consumers())) {
+            int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadGenerator generator = new LoadGenerator(options, URI.create("http://localhost:" + port));
+            generator.prepare();
+            generator.run();
+        } finally {
+            app.close();
+        }
+    }
+
+    // Command line arguments, so they win over application-test.properties
+    static ConfigurableApplicationContext boot(Duration paymentDelay, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--order.payment.simulated-delay=" + paymentDelay.toMillis() + "ms",
+                "--logging.level.sk.coderama.ai=WARN",
+                "--spring.jpa.properties.hibernate.format_sql=false"
+        ));
+        args.addAll(EventPump.inputBindingArguments());
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(TestChannelBinderConfiguration.getCompleteConfiguration(AiApplication.class))
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+
+    private void prepare() throws IOException, InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < options.users(); i++) {
+            String email = "load-" + runId + "-" + i + "@load.test";
+            send(post("/api/auth/register", null, Map.of("name", "Load User " + i, "email", email,
+                    "password", PASSWORD)), 201);
+            JsonNode login = send(post("/api/auth/login", null, Map.of("email", email, "password", PASSWORD)), 200);
+            sessions.add(new Session(login.get("userId").asLong(), email, login.get("token").asText()));
+        }
+
+        String token = sessions.get(0).token();
+        for (int i = 0; i < options.products(); i++) {
+            String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length + 3) % WORDS.length] + " " + i;
+            BigDecimal price = BigDecimal.valueOf(500 + (i * 7919L) % 20000, 2);
+            JsonNode product = send(post("/api/products", token, Map.of("name", name,
+                    "description", "Load test " + name, "price", price, "stock", 1_000_000)), 201);
+            products.add(new Product(product.get("id").asLong(), price));
+        }
+
+        // Every user starts with one order, so polling has something to poll from the first arrival
+        for (Session session : sessions) {
+            rememberOrder(send(createOrderRequest(session), 201).get("id").asLong());
+        }
+        System.out.printf("Prepared %d users, %d products and %d orders on %s%n",
+                sessions.size(), products.size(), sessions.size(), baseUri);
+    }
+
+    private void run() throws IOException, InterruptedException {
+        Operation[] wheel = wheel(options.mix());
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+
+        Path outputDir = runDirectory(options.outputDir());
+        System.out.printf("Warming up for %s, then measuring %s at %.1f requests/s%n",
+                options.warmup(), options.duration(), options.rate());
+
+        ExecutorService requests = Executors.newCachedThreadPool();
+        try (PrintStream hlog = new PrintStream(Files.newOutputStream(outputDir.resolve("latency.hlog")))) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(hlog);
+            logWriter.outputLogFormatVersion();
+            logWriter.outputComment("Latency in microseconds from scheduled arrival, tagged by operation");
+            logWriter.outputLegend();
+
+            long next = start;
+            long nextReport = measureFrom + options.reportInterval().toNanos();
+            boolean measuring = false;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (next < end) {
+                long now;
+                while ((now = System.nanoTime()) < next) {
+                    LockSupport.parkNanos(next - now);
+                }
+                if (!measuring && next >= measureFrom) {
+                    // Arrivals scheduled during warmup are sent but never recorded
+                    measuring = true;
+                    long baseTime = System.currentTimeMillis();
+                    logWriter.setBaseTime(baseTime);
+                    logWriter.outputBaseTime(baseTime);
+                }
+                if (now >= nextReport) {
+                    writeIntervals(logWriter);
+                    nextReport += options.reportInterval().toNanos();
+                }
+
+                Operation operation = wheel[random.nextInt(wheel.length)];
+                long scheduledAt = next;
+                boolean measured = measuring;
+                if (inFlight.incrementAndGet() > options.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    if (measured) {
+                        stats.get(operation).drop();
+                    }
+                } else {
+                    requests.execute(() -> {
+                        try {
+                            boolean ok = execute(operation);
+                            if (measured) {
+                                stats.get(operation).record(System.nanoTime() - scheduledAt, ok);
+                            }
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+                // Exponential gaps make the arrivals a Poisson process
+                next += (long) (-Math.log(1.0 - random.nextDouble()) * meanGapNanos);
+            }
+
+            requests.shutdown();
+            if (!requests.awaitTermination(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+                System.err.println("Requests still outstanding after the timeout: " + inFlight.get());
+            }
+            writeIntervals(logWriter);
+        }
+
+        double seconds = options.duration().toNanos() / 1e9;
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(outputDir.resolve("summary.txt")))) {
+            printSummary(System.out, seconds);
+            printSummary(summary, seconds);
+        }
+        for (EndpointStats endpoint : stats.values()) {
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(
+                    outputDir.resolve(endpoint.operation().cliName() + ".hgrm")))) {
+                endpoint.total().outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        System.out.println("Histograms written to " + outputDir.toAbsolutePath());
+    }
+
+    static Path runDirectory(Path outputDir) throws IOException {
+        return Files.createDirectories(outputDir
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+    }
+
+    private void writeIntervals(HistogramLogWriter logWriter) {
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram interval = endpoint.drainInterval();
+            if (interval.getTotalCount() > 0) {
+                logWriter.outputIntervalHistogram(interval);
+            }
+        }
+    }
+
+    private void printSummary(PrintStream out, double seconds) {
+        out.printf("%-8s %-30s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+                "op", "endpoint", "count", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        long dropped = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            printRow(out, endpoint.operation().cliName(), endpoint.operation().endpoint(), endpoint.total(),
+                    endpoint.errors(), endpoint.dropped(), seconds);
+            all.add(endpoint.total());
+            errors += endpoint.errors();
+            dropped += endpoint.dropped();
+        }
+        printRow(out, "all", "", all, errors, dropped, seconds);
+        out.printf("Orders created: %d; event consumers per binding: %d%n", ordersCreated.get(), options.consumers());
+    }
+
+    private static void printRow(PrintStream out, String name, String endpoint, Histogram histogram,
+                                 long errors, long dropped, double seconds) {
+        out.printf("%-8s %-30s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, endpoint, histogram.getTotalCount(), errors, dropped, histogram.getTotalCount() / seconds,
+                millis(histogram, 50.0), millis(histogram, 99.0), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private boolean execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Session session = sessions.get(random.nextInt(sessions.size()));
+        try {
+            HttpResponse<String> response = switch (operation) {
+                case LOGIN -> exchange(post("/api/auth/login", null,
+                        Map.of("email", session.email(), "password", PASSWORD)));
+                case BROWSE -> exchange(get("/api/products?size=20", session.token()));
+                case PRODUCT -> exchange(get("/api/products/" + randomProduct().id(), session.token()));
+                case SEARCH -> exchange(get("/api/products/search?q="
+                        + URLEncoder.encode(WORDS[random.nextInt(WORDS.length)], StandardCharsets.UTF_8),
+                        session.token()));
+                case ORDER -> exchange(createOrderRequest(session));
+                case POLL -> exchange(get("/api/orders/" + randomRecentOrder(), session.token()));
+            };
+            boolean ok = response.statusCode() / 100 == 2;
+            if (ok && operation == Operation.ORDER) {
+                rememberOrder(objectMapper.readTree(response.body()).get("id").asLong());
+            }
+            return ok;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest createOrderRequest(Session session) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int itemCount = 1 + random.nextInt(3);
+        List<Map<String, Object>> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            Product product = randomProduct();
+            items.add(Map.of("productId", product.id(), "quantity", 1 + random.nextInt(3), "price", product.price()));
+        }
+        return post("/api/orders", session.token(), Map.of("userId", session.userId(), "total", BigDecimal.ZERO,
+                "status", "PENDING", "items", items));
+    }
+
+    private Product randomProduct() {
+        return products.get(ThreadLocalRandom.current().nextInt(products.size()));
+    }
+
+    private void rememberOrder(long orderId) {
+        recentOrders.set(ordersCreated.getAndIncrement() % RECENT_ORDERS, orderId);
+    }
+
+    private long randomRecentOrder() {
+        int known = Math.min(ordersCreated.get(), RECENT_ORDERS);
+        return recentOrders.get(ThreadLocalRandom.current().nextInt(known));
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> exchange(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Setup requests must succeed; a failure means the app or the generator is broken
+    private JsonNode send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = exchange(request);
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static Operation[] wheel(Map<Operation, Integer> mix) {
+        List<Operation> wheel = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(operation);
+            }
+        });
+        return wheel.toArray(Operation[]::new);
+    }
+
+    private record Session(long userId, String email, String token) {
+    }
+
+    private record Product(long id, BigDecimal price) {
+    }
+}
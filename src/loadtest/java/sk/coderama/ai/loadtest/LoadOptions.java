@@ -0,0 +1,110 @@
+package sk.coderama.ai.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line of the load generator, {@code --name=value} pairs; see {@link #USAGE}.
+ */
+record LoadOptions(
+        double rate,
+        Duration warmup,
+        Duration duration,
+        Duration reportInterval,
+        int users,
+        int products,
+        int maxInFlight,
+        int consumers,
+        Duration paymentDelay,
+        String profiles,
+        Map<Operation, Integer> mix,
+        Path outputDir
+) {
+
+    static final String USAGE = """
+            Options (--name=value):
+              --rate=50                 arrivals per second, Poisson distributed, independent of response times
+              --warmup=10s              load applied but not recorded
+              --duration=60s            recorded load
+              --report-interval=5s      interval of the histogram log
+              --users=50                users registered before the run
+              --products=200            products created before the run
+              --max-in-flight=5000      requests beyond this many outstanding are counted as dropped
+              --consumers=1             threads handling each event binding (RabbitMQ default: 1)
+              --payment-delay=200ms     order.payment.simulated-delay of the booted app
+              --profiles=               Spring profiles on top of test, e.g. virtual-threads
+              --mix=login:5,browse:25,product:25,search:10,order:10,poll:25
+                                        relative weight of each operation
+              --output=target/loadtest  directory for the .hlog and .hgrm files
+            """;
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = values(args, USAGE);
+        LoadOptions options = new LoadOptions(
+                Double.parseDouble(take(values, "rate", "50")),
+                duration(take(values, "warmup", "10s")),
+                duration(take(values, "duration", "60s")),
+                duration(take(values, "report-interval", "5s")),
+                Integer.parseInt(take(values, "users", "50")),
+                Integer.parseInt(take(values, "products", "200")),
+                Integer.parseInt(take(values, "max-in-flight", "5000")),
+                Integer.parseInt(take(values, "consumers", "1")),
+                duration(take(values, "payment-delay", "200ms")),
+                take(values, "profiles", ""),
+                mix(take(values, "mix", "login:5,browse:25,product:25,search:10,order:10,poll:25")),
+                Path.of(take(values, "output", "target/loadtest"))
+        );
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet() + "\n" + USAGE);
+        }
+        if (options.rate <= 0 || options.users <= 0 || options.products <= 0 || options.consumers <= 0) {
+            throw new IllegalArgumentException("rate, users, products and consumers must be positive\n" + USAGE);
+        }
+        return options;
+    }
+
+    // Shared with the other command lines of this package
+    static Map<String, String> values(String[] args, String usage) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got '" + arg + "'\n" + usage);
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return values;
+    }
+
+    static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in --mix, got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.byName(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one operation with a positive weight");
+        }
+        return mix;
+    }
+}
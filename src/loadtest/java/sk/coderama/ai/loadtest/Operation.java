@@ -0,0 +1,38 @@
+package sk.coderama.ai.loadtest;
+
+/**
+ * What one arrival does. The mix decides how often each is picked.
+ */
+enum Operation {
+    LOGIN("login", "POST /api/auth/login"),
+    BROWSE("browse", "GET /api/products?size=20"),
+    PRODUCT("product", "GET /api/products/{id}"),
+    SEARCH("search", "GET /api/products/search?q="),
+    ORDER("order", "POST /api/orders"),
+    POLL("poll", "GET /api/orders/{id}");
+
+    private final String cliName;
+    private final String endpoint;
+
+    Operation(String cliName, String endpoint) {
+        this.cliName = cliName;
+        this.endpoint = endpoint;
+    }
+
+    String cliName() {
+        return cliName;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operation byName(String name) {
+        for (Operation operation : values()) {
+            if (operation.cliName.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + name + "' in --mix");
+    }
+}
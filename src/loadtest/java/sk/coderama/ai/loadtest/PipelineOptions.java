@@ -0,0 +1,54 @@
+package sk.coderama.ai.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static sk.coderama.ai.loadtest.LoadOptions.duration;
+import static sk.coderama.ai.loadtest.LoadOptions.take;
+
+/**
+ * Command line of the event pipeline benchmark, {@code --name=value} pairs; see {@link #USAGE}.
+ */
+record PipelineOptions(
+        int events,
+        double rate,
+        int expired,
+        int consumers,
+        Duration paymentDelay,
+        Duration stallTimeout,
+        Path outputDir
+) {
+
+    static final String USAGE = """
+            Options (--name=value):
+              --events=2000             OrderCreatedEvents published, one per seeded PENDING order
+              --rate=0                  events per second, Poisson distributed; 0 publishes all at once
+              --expired=500             orders seeded past the expiration threshold and expired in one run
+              --consumers=1             threads handling each event binding (RabbitMQ default: 1)
+              --payment-delay=0ms       order.payment.simulated-delay of the booted app
+              --stall-timeout=60s       give up when no event finishes for this long
+              --output=target/loadtest  directory for the .hgrm files
+            """;
+
+    static PipelineOptions parse(String[] args) {
+        Map<String, String> values = LoadOptions.values(args, USAGE);
+        PipelineOptions options = new PipelineOptions(
+                Integer.parseInt(take(values, "events", "2000")),
+                Double.parseDouble(take(values, "rate", "0")),
+                Integer.parseInt(take(values, "expired", "500")),
+                Integer.parseInt(take(values, "consumers", "1")),
+                duration(take(values, "payment-delay", "0ms")),
+                duration(take(values, "stall-timeout", "60s")),
+                Path.of(take(values, "output", "target/loadtest"))
+        );
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet() + "\n" + USAGE);
+        }
+        if (options.events <= 0 || options.expired < 0 || options.rate < 0 || options.consumers <= 0) {
+            throw new IllegalArgumentException("events and consumers must be positive, expired and rate not "
+                    + "negative\n" + USAGE);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,118 @@
+package sk.coderama.ai.cache;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory map holding about {@code maxSize} entries, each served until its own expiry time. When full, putting a
+ * new key evicts an expired or idle entry, so a burst of one-off keys pushes out idle entries instead of stopping
+ * the cache from recording anything. A {@code maxSize} of zero or less disables the cache.
+ * <p>
+ * Reads take no lock: entries live in a {@link ConcurrentHashMap} and a hit only stamps the entry with the caller's
+ * clock, skipped when it already carries that millisecond, so a hot entry is not rewritten by every thread. Eviction
+ * approximates LRU the way Redis does: it samples {@value #EVICTION_SAMPLES} entries, walking the map round-robin
+ * across evictions, and removes an expired one or the least recently used of the sample. Only one thread evicts at
+ * a time and others do not wait for it, so under concurrent puts the size can exceed {@code maxSize} by a few
+ * entries until the next eviction.
+ */
+public final class BoundedCache<K, V> {
+
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final int maxSize;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    // Position of the eviction sampling in the map; guarded by evictionLock
+    private Iterator<Map.Entry<K, Entry<V>>> hand = Collections.emptyIterator();
+
+    public BoundedCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key, long nowMillis) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis <= nowMillis) {
+            entries.remove(key, entry);
+            return null;
+        }
+        if (entry.lastAccessMillis != nowMillis) {
+            entry.lastAccessMillis = nowMillis;
+        }
+        return entry.value;
+    }
+
+    public void put(K key, V value, long expiresAtMillis, long nowMillis) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key) && evictionLock.tryLock()) {
+            try {
+                while (entries.size() >= maxSize) {
+                    evictOne(nowMillis);
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis, nowMillis));
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictOne(long nowMillis) {
+        Map.Entry<K, Entry<V>> victim = null;
+        boolean wrapped = false;
+        for (int sampled = 0; sampled < EVICTION_SAMPLES; sampled++) {
+            if (!hand.hasNext()) {
+                if (wrapped) {
+                    break;
+                }
+                hand = entries.entrySet().iterator();
+                wrapped = true;
+                if (!hand.hasNext()) {
+                    return;
+                }
+            }
+            Map.Entry<K, Entry<V>> candidate = hand.next();
+            if (candidate.getValue().expiresAtMillis <= nowMillis) {
+                victim = candidate;
+                break;
+            }
+            if (victim == null || candidate.getValue().lastAccessMillis < victim.getValue().lastAccessMillis) {
+                victim = candidate;
+            }
+        }
+        if (victim != null) {
+            entries.remove(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long expiresAtMillis;
+        private volatile long lastAccessMillis;
+
+        private Entry(V value, long expiresAtMillis, long lastAccessMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+            this.lastAccessMillis = lastAccessMillis;
+        }
+    }
+}
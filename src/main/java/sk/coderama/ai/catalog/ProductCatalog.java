@@ -0,0 +1,135 @@
+package sk.coderama.ai.catalog;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sk.coderama.ai.dto.response.ProductResponse;
+import sk.coderama.ai.event.internal.ProductChangedInternalEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Immutable snapshot of the product list. Committed local writes and change events from other nodes only mark
+ * the snapshot as behind; the next read or refresh rebuilds it once, however many changes piled up.
+ * {@code product.catalog.staleness} is how long the served snapshot has been missing the oldest change this node
+ * knows about, {@code product.catalog.age} how long ago it was built.
+ */
+@Component
+public class ProductCatalog {
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final long maxAgeMillis;
+
+    private final Object changeLock = new Object();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile long changes;
+    private volatile Instant pendingSince;
+    private Instant pendingSinceRebuildStarted;
+    private volatile Snapshot snapshot;
+
+    public ProductCatalog(
+            @Value("${product.catalog.max-age:5m}") Duration maxAge,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxAgeMillis = maxAge.toMillis();
+
+        TimeGauge.builder("product.catalog.staleness", this, TimeUnit.MILLISECONDS, ProductCatalog::stalenessMillis)
+                .description("Time the served catalog has been missing a known product change")
+                .register(meterRegistry);
+        TimeGauge.builder("product.catalog.age", this, TimeUnit.MILLISECONDS, ProductCatalog::ageMillis)
+                .description("Time since the catalog snapshot was built")
+                .register(meterRegistry);
+        Gauge.builder("product.catalog.size", this, c -> c.snapshot == null ? 0 : c.snapshot.products().size())
+                .description("Products in the catalog snapshot")
+                .register(meterRegistry);
+    }
+
+    public List<ProductResponse> get(Supplier<List<ProductResponse>> loader) {
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == changes) {
+            return current.products();
+        }
+        return rebuild(loader, false).products();
+    }
+
+    /**
+     * Rebuilds the snapshot if it is behind a known change or older than {@code product.catalog.max-age}; the
+     * age limit bounds staleness when a change event from another node is lost.
+     */
+    public void refresh(Supplier<List<ProductResponse>> loader) {
+        rebuild(loader, true);
+    }
+
+    public void markChanged(Instant changedAt) {
+        synchronized (changeLock) {
+            changes++;
+            pendingSince = earliest(pendingSince, changedAt);
+            pendingSinceRebuildStarted = earliest(pendingSinceRebuildStarted, changedAt);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedInternalEvent event) {
+        markChanged(event.getProductChangedEvent().getTimestamp());
+    }
+
+    private Snapshot rebuild(Supplier<List<ProductResponse>> loader, boolean expireOld) {
+        rebuildLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != null && current.generation() == changes
+                    && !(expireOld && System.currentTimeMillis() - current.builtAtMillis() >= maxAgeMillis)) {
+                return current;
+            }
+
+            long generation;
+            synchronized (changeLock) {
+                generation = changes;
+                pendingSinceRebuildStarted = null;
+            }
+            Snapshot rebuilt = new Snapshot(List.copyOf(loader.get()), generation, System.currentTimeMillis());
+            snapshot = rebuilt;
+            synchronized (changeLock) {
+                // Only changes marked while loading can be missing from the new snapshot
+                pendingSince = pendingSinceRebuildStarted;
+            }
+            return rebuilt;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private double stalenessMillis() {
+        Instant since = pendingSince;
+        return since == null ? 0 : Math.max(0, System.currentTimeMillis() - since.toEpochMilli());
+    }
+
+    private double ageMillis() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : System.currentTimeMillis() - current.builtAtMillis();
+    }
+
+    private static Instant earliest(Instant current, Instant candidate) {
+        if (candidate == null) {
+            candidate = Instant.now();
+        }
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+
+    private record Snapshot(List<ProductResponse> products, long generation, long builtAtMillis) {
+    }
+}
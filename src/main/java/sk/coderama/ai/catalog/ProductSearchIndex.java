@@ -0,0 +1,123 @@
+package sk.coderama.ai.catalog;
+
+import sk.coderama.ai.dto.response.ProductResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable inverted index over a catalog snapshot for small catalogs. Terms are kept sorted so a query term
+ * matches every indexed term it is a prefix of; a product must match all query terms. Scores mirror the
+ * PostgreSQL weights: each occurrence in the name counts 1.0, in the description 0.4.
+ */
+public final class ProductSearchIndex {
+
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final float NAME_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 0.4f;
+
+    private final List<ProductResponse> products;
+    private final String[] terms;
+    private final int[][] postings;
+    private final float[][] weights;
+
+    private ProductSearchIndex(List<ProductResponse> products, String[] terms, int[][] postings, float[][] weights) {
+        this.products = products;
+        this.terms = terms;
+        this.postings = postings;
+        this.weights = weights;
+    }
+
+    public static ProductSearchIndex build(List<ProductResponse> products) {
+        TreeMap<String, Map<Integer, Float>> index = new TreeMap<>();
+        for (int doc = 0; doc < products.size(); doc++) {
+            ProductResponse product = products.get(doc);
+            addTerms(index, doc, product.getName(), NAME_WEIGHT);
+            addTerms(index, doc, product.getDescription(), DESCRIPTION_WEIGHT);
+        }
+
+        String[] terms = new String[index.size()];
+        int[][] postings = new int[index.size()][];
+        float[][] weights = new float[index.size()][];
+        int i = 0;
+        for (Map.Entry<String, Map<Integer, Float>> entry : index.entrySet()) {
+            terms[i] = entry.getKey();
+            postings[i] = new int[entry.getValue().size()];
+            weights[i] = new float[entry.getValue().size()];
+            int j = 0;
+            for (Map.Entry<Integer, Float> posting : entry.getValue().entrySet()) {
+                postings[i][j] = posting.getKey();
+                weights[i][j] = posting.getValue();
+                j++;
+            }
+            i++;
+        }
+        return new ProductSearchIndex(products, terms, postings, weights);
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        Matcher matcher = TERM.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+        return tokens;
+    }
+
+    /**
+     * Products matching every query term as a prefix, best score first and by id within equal scores.
+     */
+    public List<Hit> search(List<String> queryTerms) {
+        Map<Integer, Double> scores = null;
+        for (String queryTerm : queryTerms) {
+            Map<Integer, Double> termScores = new HashMap<>();
+            int start = Arrays.binarySearch(terms, queryTerm);
+            for (int t = start >= 0 ? start : -start - 1; t < terms.length && terms[t].startsWith(queryTerm); t++) {
+                for (int p = 0; p < postings[t].length; p++) {
+                    termScores.merge(postings[t][p], (double) weights[t][p], Double::sum);
+                }
+            }
+
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Integer, Double> previous = scores;
+                termScores.keySet().retainAll(previous.keySet());
+                termScores.replaceAll((doc, score) -> score + previous.get(doc));
+                scores = termScores;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (scores == null) {
+            return List.of();
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((doc, score) -> hits.add(new Hit(products.get(doc), score)));
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(hit -> hit.product().getId()));
+        return hits;
+    }
+
+    private static void addTerms(TreeMap<String, Map<Integer, Float>> index, int doc, String text, float weight) {
+        for (String token : tokenize(text)) {
+            index.computeIfAbsent(token, t -> new TreeMap<>()).merge(doc, weight, Float::sum);
+        }
+    }
+
+    public record Hit(ProductResponse product, double score) {
+    }
+}
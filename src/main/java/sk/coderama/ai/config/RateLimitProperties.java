@@ -0,0 +1,52 @@
+package sk.coderama.ai.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route request limits. Rules are matched in order and the first matching rule applies;
+ * requests matching no rule are not limited.
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Buckets untouched for this long are dropped; an idle bucket is full, so nothing is lost. */
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    @Valid
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        /** HTTP method to match, or null for any. */
+        private String method;
+        /** Path pattern, e.g. /api/orders/**. */
+        private String path;
+        /** Requests allowed in a burst. */
+        @Positive
+        private int capacity;
+        /** Time in which a drained bucket fully refills. */
+        @NotNull
+        private Duration period;
+
+        @AssertTrue(message = "must be positive")
+        boolean isPeriodPositive() {
+            return period == null || period.isPositive();
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package sk.coderama.ai.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import sk.coderama.ai.security.BoundedPasswordEncoder;
 import sk.coderama.ai.security.JwtAuthenticationEntryPoint;
 import sk.coderama.ai.security.JwtAuthenticationFilter;
+import sk.coderama.ai.security.RateLimitFilter;
+import sk.coderama.ai.security.UserPrincipal;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableWebSecurity
@@ -25,14 +37,29 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            @Value("${security.admin-emails:}") List<String> adminEmails
+    ) throws Exception {
+        Set<String> admins = adminEmails.stream()
+                .map(email -> email.strip().toLowerCase(Locale.ROOT))
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Error pages render the status already decided (401, 403, ...) and must not be re-checked
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                        // Only served on management.server.port, which is kept off the public network
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                        // Statements, traces and the sampling switch are for operators only
+                        .requestMatchers("/actuator/sqlstats/**").access((authentication, context) ->
+                                new AuthorizationDecision(isAdmin(authentication.get(), admins)))
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(exception -> exception
@@ -41,14 +68,35 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    private static boolean isAdmin(Authentication authentication, Set<String> admins) {
+        return authentication != null
+                && authentication.getPrincipal() instanceof UserPrincipal principal
+                && admins.contains(principal.getEmail().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * A fixed security.password-hashing.strength wins; otherwise the strength is calibrated to
+     * security.password-hashing.target-latency on this machine.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.strength:0}") int strength,
+            @Value("${security.password-hashing.target-latency:250ms}") Duration targetLatency,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${security.password-hashing.max-wait:2s}") Duration maxWait
+    ) {
+        return new BoundedPasswordEncoder(
+                strength > 0 ? strength : BoundedPasswordEncoder.calibrateStrength(targetLatency),
+                threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                queueCapacity,
+                maxWait);
     }
 
     @Bean
@@ -0,0 +1,29 @@
+package sk.coderama.ai.config;
+
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * With {@code spring.threads.virtual.enabled} Boot runs Tomcat requests and {@code @Scheduled} tasks on virtual
+ * threads, but the stream binder builds its RabbitMQ listener containers itself, outside Boot's container
+ * factory. This moves their consumers over as well.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public ListenerContainerCustomizer<MessageListenerContainer> virtualThreadListenerContainers() {
+        return (container, destination, group) -> {
+            if (container instanceof AbstractMessageListenerContainer listenerContainer) {
+                listenerContainer.setTaskExecutor(new VirtualThreadTaskExecutor(destination + "-"));
+            }
+        };
+    }
+}
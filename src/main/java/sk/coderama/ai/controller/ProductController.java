@@ -5,14 +5,23 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import sk.coderama.ai.dto.request.CreateProductRequest;
+import sk.coderama.ai.dto.request.ProductImportFormat;
+import sk.coderama.ai.dto.request.ProductSort;
 import sk.coderama.ai.dto.request.UpdateProductRequest;
+import sk.coderama.ai.dto.response.CursorPage;
+import sk.coderama.ai.dto.response.ProductImportResponse;
 import sk.coderama.ai.dto.response.ProductResponse;
+import sk.coderama.ai.service.ProductImportService;
 import sk.coderama.ai.service.ProductService;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -22,13 +31,82 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class ProductController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
     @GetMapping
-    @Operation(summary = "Get all products", description = "Returns a list of all products")
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<ProductResponse> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    @Operation(
+            summary = "Get products",
+            description = "Without parameters returns all products. With any filter, sort, cursor or size parameter "
+                    + "returns one page of matching products; pass the X-Next-Cursor response header back as 'cursor' "
+                    + "to get the next page."
+    )
+    public ResponseEntity<List<ProductResponse>> getAllProducts(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) ProductSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        if (minPrice == null && maxPrice == null && inStock == null && namePrefix == null
+                && sort == null && cursor == null && size == null) {
+            return ResponseEntity.ok(productService.getAllProducts());
+        }
+
+        CursorPage<ProductResponse> page = productService.getProducts(
+                minPrice,
+                maxPrice,
+                Boolean.TRUE.equals(inStock),
+                namePrefix,
+                sort != null ? sort : ProductSort.ID,
+                cursor,
+                size != null ? size : DEFAULT_PAGE_SIZE
+        );
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search products",
+            description = "Full-text search over product names and descriptions, best match first. Every word of 'q' "
+                    + "must match, as a prefix. Pass the X-Next-Cursor response header back as 'cursor' to get the next page."
+    )
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        CursorPage<ProductResponse> page = productService.searchProducts(q, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "Import products",
+            description = "Bulk insert/update from CSV (header: id,name,description,price,stock) or NDJSON. "
+                    + "Rows with an id update that product, rows without one create a product. "
+                    + "Invalid rows are skipped and listed in the response; all other rows are applied together."
+    )
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) {
+        ProductImportFormat format = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductImportFormat.CSV
+                : ProductImportFormat.NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
     }
 
     @GetMapping("/{id}")
@@ -10,7 +10,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import sk.coderama.ai.dto.request.CreateUserRequest;
 import sk.coderama.ai.dto.request.UpdateUserRequest;
+import sk.coderama.ai.dto.response.CursorPage;
+import sk.coderama.ai.dto.response.NotificationResponse;
+import sk.coderama.ai.dto.response.UserDeletionResponse;
 import sk.coderama.ai.dto.response.UserResponse;
+import sk.coderama.ai.entity.NotificationEventType;
+import sk.coderama.ai.entity.NotificationStatus;
+import sk.coderama.ai.service.NotificationService;
+import sk.coderama.ai.service.UserDeletionService;
 import sk.coderama.ai.service.UserService;
 
 import java.util.List;
@@ -23,12 +30,26 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final NotificationService notificationService;
+    private final UserDeletionService userDeletionService;
 
     @GetMapping
-    @Operation(summary = "Get all users", description = "Returns a list of all users")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    @Operation(
+            summary = "Get users",
+            description = "Returns a page of users in email order, optionally only those whose email starts with "
+                    + "'emailPrefix'. Pass the X-Next-Cursor response header back as 'cursor' to get the next page."
+    )
+    public ResponseEntity<List<UserResponse>> getUsers(
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        CursorPage<UserResponse> page = userService.getUsers(emailPrefix, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @GetMapping("/{id}")
@@ -56,9 +77,40 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete user", description = "Deletes a user by their ID")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        userService.deleteUser(id);
-        return ResponseEntity.noContent().build();
+    @Operation(
+            summary = "Delete user",
+            description = "Deletes a user by their ID. The user is gone at once; their notifications and orders are "
+                    + "purged in the background, see GET /api/users/{id}/deletion for progress."
+    )
+    public ResponseEntity<UserDeletionResponse> deleteUser(@PathVariable Long id) {
+        return ResponseEntity.accepted().body(userDeletionService.requestDeletion(id));
+    }
+
+    @GetMapping("/{id}/deletion")
+    @Operation(summary = "Get user deletion", description = "Returns the progress of a requested user deletion")
+    public ResponseEntity<UserDeletionResponse> getUserDeletion(@PathVariable Long id) {
+        return ResponseEntity.ok(userDeletionService.getDeletion(id));
+    }
+
+    @GetMapping("/{id}/notifications")
+    @Operation(
+            summary = "Get user notifications",
+            description = "Returns a page of the user's notifications, newest first. "
+                    + "Pass the X-Next-Cursor response header back as 'cursor' to get the next page."
+    )
+    public ResponseEntity<List<NotificationResponse>> getUserNotifications(
+            @PathVariable Long id,
+            @RequestParam(required = false) NotificationStatus status,
+            @RequestParam(required = false) NotificationEventType eventType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        CursorPage<NotificationResponse> page =
+                notificationService.getUserNotifications(id, status, eventType, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
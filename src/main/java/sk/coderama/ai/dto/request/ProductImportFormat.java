@@ -0,0 +1,6 @@
+package sk.coderama.ai.dto.request;
+
+public enum ProductImportFormat {
+    CSV,
+    NDJSON
+}
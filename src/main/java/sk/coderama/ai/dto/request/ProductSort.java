@@ -0,0 +1,9 @@
+package sk.coderama.ai.dto.request;
+
+public enum ProductSort {
+    ID,
+    PRICE_ASC,
+    PRICE_DESC,
+    NAME_ASC,
+    NAME_DESC
+}
@@ -22,4 +22,7 @@ public class UpdateOrderRequest {
 
     @Valid
     private List<OrderItemRequest> items;
+
+    /** Version the client last read; when set, the update fails with 409 if the order changed since. */
+    private Long version;
 }
@@ -24,4 +24,7 @@ public class UpdateProductRequest {
 
     @Min(value = 0, message = "Stock must be greater than or equal to 0")
     private Integer stock;
+
+    /** Version the client last read; when set, the update fails with 409 if the product changed since. */
+    private Long version;
 }
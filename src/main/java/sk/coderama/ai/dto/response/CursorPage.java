@@ -0,0 +1,22 @@
+package sk.coderama.ai.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Controllers return {@code items} as the response body
+ * and expose {@code nextCursor} in the {@value #NEXT_CURSOR_HEADER} header; it is null on the
+ * last page.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+
+    private String nextCursor;
+}
@@ -13,6 +13,11 @@ public class JwtResponse {
 
     private String token;
 
+    private String refreshToken;
+
+    /** Access token lifetime in seconds. */
+    private Long expiresIn;
+
     @Builder.Default
     private String type = "Bearer";
 
@@ -0,0 +1,32 @@
+package sk.coderama.ai.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sk.coderama.ai.entity.NotificationChannel;
+import sk.coderama.ai.entity.NotificationEventType;
+import sk.coderama.ai.entity.NotificationStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponse {
+
+    private Long id;
+
+    private Long orderId;
+
+    private NotificationEventType eventType;
+
+    private NotificationChannel channel;
+
+    private NotificationStatus status;
+
+    private String message;
+
+    private LocalDateTime createdAt;
+}
@@ -26,6 +26,8 @@ public class OrderResponse {
 
     private List<OrderItemResponse> items;
 
+    private Long version;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -0,0 +1,38 @@
+package sk.coderama.ai.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+
+    private long received;
+
+    private long inserted;
+
+    private long updated;
+
+    private long rejected;
+
+    /**
+     * The first rejected rows, in row order; {@code errorsTruncated} is set when there were more.
+     */
+    private List<RowError> errors;
+
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
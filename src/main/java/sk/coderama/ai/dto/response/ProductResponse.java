@@ -24,6 +24,8 @@ public class ProductResponse {
 
     private Integer stock;
 
+    private Long version;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -0,0 +1,32 @@
+package sk.coderama.ai.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sk.coderama.ai.entity.UserDeletionStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletionResponse {
+
+    private Long userId;
+
+    private UserDeletionStatus status;
+
+    private long notificationsDeleted;
+
+    private long orderItemsDeleted;
+
+    private long ordersDeleted;
+
+    private String lastError;
+
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime completedAt;
+}
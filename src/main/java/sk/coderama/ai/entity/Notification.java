@@ -8,6 +8,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "notifications")
@@ -40,8 +42,11 @@ public class Notification {
     @Column(name = "event_type", nullable = false, length = 50)
     private NotificationEventType eventType;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String message;
+    @Column(name = "template_id", nullable = false)
+    private NotificationTemplate template;
+
+    @Column(name = "template_params", columnDefinition = "TEXT")
+    private String templateParams;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "notification_channel", nullable = false, length = 50)
@@ -51,11 +56,31 @@ public class Notification {
     @Column(nullable = false, length = 20)
     private NotificationStatus status;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /** Every order a coalesced digest covers; empty for regular single-order notifications. */
+    @ElementCollection
+    @CollectionTable(name = "notification_digest_orders", joinColumns = @JoinColumn(name = "notification_id"))
+    @Column(name = "order_id", nullable = false)
+    @Builder.Default
+    private List<Long> digestOrderIds = new ArrayList<>();
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (status == NotificationStatus.PENDING && nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
     }
 }
@@ -0,0 +1,33 @@
+package sk.coderama.ai.entity;
+
+import lombok.Getter;
+
+/**
+ * Message templates a notification row can reference. The numeric id is what gets persisted,
+ * so ids must never be reused or renumbered. Placeholder {0} is always the notification's
+ * order id; {1}..{n} come from the row's template parameters.
+ */
+@Getter
+public enum NotificationTemplate {
+    LEGACY((short) 0, "{1}"),
+    ORDER_COMPLETED((short) 1, "Your order #{0} has been successfully completed! Total: ${1}. Payment Reference: {2}"),
+    ORDER_EXPIRED((short) 2, "Your order #{0} has expired. Previous status: {1}. Reason: {2}"),
+    ORDER_EXPIRED_DIGEST((short) 3, "{1} of your orders have expired, including order #{0}. Reason: {2}");
+
+    private final short id;
+    private final String pattern;
+
+    NotificationTemplate(short id, String pattern) {
+        this.id = id;
+        this.pattern = pattern;
+    }
+
+    public static NotificationTemplate fromId(short id) {
+        for (NotificationTemplate template : values()) {
+            if (template.id == id) {
+                return template;
+            }
+        }
+        throw new IllegalArgumentException("Unknown notification template id: " + id);
+    }
+}
@@ -0,0 +1,18 @@
+package sk.coderama.ai.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class NotificationTemplateConverter implements AttributeConverter<NotificationTemplate, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(NotificationTemplate template) {
+        return template == null ? null : template.getId();
+    }
+
+    @Override
+    public NotificationTemplate convertToEntityAttribute(Short id) {
+        return id == null ? null : NotificationTemplate.fromId(id);
+    }
+}
@@ -33,6 +33,10 @@ public class Product {
     @Column(nullable = false)
     private Integer stock;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
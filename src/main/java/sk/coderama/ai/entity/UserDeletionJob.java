@@ -0,0 +1,59 @@
+package sk.coderama.ai.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_deletion_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, unique = true, updatable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UserDeletionStatus status;
+
+    @Column(name = "notifications_deleted", nullable = false)
+    @Builder.Default
+    private long notificationsDeleted = 0;
+
+    @Column(name = "order_items_deleted", nullable = false)
+    @Builder.Default
+    private long orderItemsDeleted = 0;
+
+    @Column(name = "orders_deleted", nullable = false)
+    @Builder.Default
+    private long ordersDeleted = 0;
+
+    // Due time while PENDING; while a worker holds the job, the end of its lease
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
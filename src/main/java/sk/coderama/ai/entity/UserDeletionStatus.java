@@ -0,0 +1,6 @@
+package sk.coderama.ai.entity;
+
+public enum UserDeletionStatus {
+    PENDING,
+    COMPLETED
+}
@@ -0,0 +1,26 @@
+package sk.coderama.ai.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangedEvent implements Serializable {
+    private String eventId;
+    // Null for IMPORTED, which may touch any number of products
+    private Long productId;
+    private ChangeType changeType;
+    private String originNodeId;
+    private Instant timestamp;
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED, IMPORTED
+    }
+}
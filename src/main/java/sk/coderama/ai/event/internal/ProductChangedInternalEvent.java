@@ -0,0 +1,15 @@
+package sk.coderama.ai.event.internal;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+import sk.coderama.ai.event.ProductChangedEvent;
+
+@Getter
+public class ProductChangedInternalEvent extends ApplicationEvent {
+    private final ProductChangedEvent productChangedEvent;
+
+    public ProductChangedInternalEvent(Object source, ProductChangedEvent productChangedEvent) {
+        super(source);
+        this.productChangedEvent = productChangedEvent;
+    }
+}
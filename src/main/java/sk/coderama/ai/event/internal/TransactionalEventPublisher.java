@@ -19,4 +19,15 @@ public class TransactionalEventPublisher {
         log.debug("Transaction committed, publishing OrderCreatedEvent to message broker");
         eventPublisher.publishOrderCreated(event.getOrderCreatedEvent());
     }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleProductChangedEvent(ProductChangedInternalEvent event) {
+        log.debug("Transaction committed, publishing ProductChangedEvent to message broker");
+        try {
+            eventPublisher.publishProductChanged(event.getProductChangedEvent());
+        } catch (Exception e) {
+            // The change is committed; other nodes pick it up on their next scheduled catalog refresh
+            log.error("Error publishing ProductChangedEvent {}", event.getProductChangedEvent().getEventId(), e);
+        }
+    }
 }
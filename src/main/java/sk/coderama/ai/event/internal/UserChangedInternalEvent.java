@@ -0,0 +1,16 @@
+package sk.coderama.ai.event.internal;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class UserChangedInternalEvent extends ApplicationEvent {
+    private final Long userId;
+    private final String email;
+
+    public UserChangedInternalEvent(Object source, Long userId, String email) {
+        super(source);
+        this.userId = userId;
+        this.email = email;
+    }
+}
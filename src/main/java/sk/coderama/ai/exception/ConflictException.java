@@ -0,0 +1,8 @@
+package sk.coderama.ai.exception;
+
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package sk.coderama.ai.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
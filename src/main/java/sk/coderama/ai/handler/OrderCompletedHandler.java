@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.annotation.Transactional;
 import sk.coderama.ai.event.OrderCompletedEvent;
+import sk.coderama.ai.metrics.EventMetrics;
 import sk.coderama.ai.service.NotificationService;
 
 import java.util.function.Consumer;
@@ -16,10 +17,11 @@ import java.util.function.Consumer;
 public class OrderCompletedHandler {
 
     private final NotificationService notificationService;
+    private final EventMetrics eventMetrics;
 
     @Bean
     public Consumer<OrderCompletedEvent> orderCompleted() {
-        return this::handleOrderCompleted;
+        return eventMetrics.timedHandler("orderCompleted", this::handleOrderCompleted);
     }
 
     @Transactional
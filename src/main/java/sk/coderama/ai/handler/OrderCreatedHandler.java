@@ -2,19 +2,23 @@ package sk.coderama.ai.handler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.transaction.annotation.Transactional;
 import sk.coderama.ai.entity.Order;
 import sk.coderama.ai.entity.OrderStatus;
 import sk.coderama.ai.event.OrderCompletedEvent;
 import sk.coderama.ai.event.OrderCreatedEvent;
 import sk.coderama.ai.event.OrderEvent;
 import sk.coderama.ai.exception.ResourceNotFoundException;
+import sk.coderama.ai.metrics.EventMetrics;
+import sk.coderama.ai.metrics.OrderMetrics;
 import sk.coderama.ai.repository.OrderRepository;
 import sk.coderama.ai.service.EventPublisher;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Random;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -26,14 +30,19 @@ public class OrderCreatedHandler {
 
     private final OrderRepository orderRepository;
     private final EventPublisher eventPublisher;
+    private final EventMetrics eventMetrics;
+    private final OrderMetrics orderMetrics;
     private final Random random = new Random();
 
+    @Value("${order.payment.simulated-delay:5s}")
+    private Duration paymentDelay;
+
     @Bean
     public Consumer<OrderCreatedEvent> orderCreated() {
-        return this::handleOrderCreated;
+        return eventMetrics.timedHandler("orderCreated", this::handleOrderCreated);
     }
 
-    @Transactional
+    // Not transactional: each status transition commits on its own, so no transaction stays open during payment
     public void handleOrderCreated(OrderCreatedEvent event) {
         log.info("Processing OrderCreatedEvent for order {}, eventId: {}",
                 event.getOrderId(), event.getEventId());
@@ -42,26 +51,29 @@ public class OrderCreatedHandler {
             Order order = orderRepository.findById(event.getOrderId())
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", event.getOrderId()));
 
-            // Idempotency check
-            if (order.getStatus() == OrderStatus.PENDING) {
-                order.setStatus(OrderStatus.PROCESSING);
-                orderRepository.save(order);
+            // Idempotency check: only the delivery that moves the order out of PENDING processes it
+            LocalDateTime processingAt = LocalDateTime.now();
+            if (orderRepository.transitionStatus(order.getId(), List.of(OrderStatus.PENDING),
+                    OrderStatus.PROCESSING, processingAt) == 1) {
+                orderMetrics.recordTransition(OrderStatus.PENDING, OrderStatus.PROCESSING,
+                        order.getCreatedAt(), processingAt);
                 log.info("Order {} status updated to PROCESSING", order.getId());
             } else {
-                log.warn("Order {} already in status {}, skipping", order.getId(), order.getStatus());
+                log.warn("Order {} is no longer PENDING, skipping", order.getId());
                 return;
             }
 
-            // Simulate payment processing (5 seconds)
-            log.info("Simulating payment processing for order {} (5 seconds)...", order.getId());
-            Thread.sleep(5000);
+            // Simulate payment processing
+            log.info("Simulating payment processing for order {} ({})...", order.getId(), paymentDelay);
+            Thread.sleep(paymentDelay);
 
             // 50% success rate
             boolean paymentSuccess = random.nextBoolean();
+            orderMetrics.recordPayment(paymentSuccess);
 
-            if (paymentSuccess) {
-                order.setStatus(OrderStatus.COMPLETED);
-                orderRepository.save(order);
+            if (!paymentSuccess) {
+                log.info("Payment failed for order {}, status remains PROCESSING", order.getId());
+            } else if (completeOrder(order, processingAt)) {
                 log.info("Payment successful for order {}, status updated to COMPLETED", order.getId());
 
                 OrderCompletedEvent completedEvent = OrderCompletedEvent.builder()
@@ -76,7 +88,8 @@ public class OrderCreatedHandler {
 
                 eventPublisher.publishOrderCompleted(completedEvent);
             } else {
-                log.info("Payment failed for order {}, status remains PROCESSING", order.getId());
+                log.warn("Payment successful for order {}, but it left PROCESSING meanwhile; not completing",
+                        order.getId());
             }
 
         } catch (InterruptedException e) {
@@ -86,4 +99,15 @@ public class OrderCreatedHandler {
             log.error("Error processing OrderCreatedEvent for order {}", event.getOrderId(), e);
         }
     }
+
+    private boolean completeOrder(Order order, LocalDateTime processingAt) {
+        LocalDateTime completedAt = LocalDateTime.now();
+        if (orderRepository.transitionStatus(order.getId(), List.of(OrderStatus.PROCESSING),
+                OrderStatus.COMPLETED, completedAt) == 0) {
+            return false;
+        }
+        orderMetrics.recordTransition(OrderStatus.PROCESSING, OrderStatus.COMPLETED, processingAt, completedAt);
+        orderMetrics.recordCompletion(OrderStatus.COMPLETED, order.getCreatedAt(), completedAt);
+        return true;
+    }
 }
@@ -6,6 +6,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.annotation.Transactional;
 import sk.coderama.ai.event.OrderExpiredEvent;
+import sk.coderama.ai.metrics.EventMetrics;
+import sk.coderama.ai.notification.NotificationCoalescer;
 import sk.coderama.ai.service.NotificationService;
 
 import java.util.function.Consumer;
@@ -16,10 +18,12 @@ import java.util.function.Consumer;
 public class OrderExpiredHandler {
 
     private final NotificationService notificationService;
+    private final NotificationCoalescer notificationCoalescer;
+    private final EventMetrics eventMetrics;
 
     @Bean
     public Consumer<OrderExpiredEvent> orderExpired() {
-        return this::handleOrderExpired;
+        return eventMetrics.timedHandler("orderExpired", this::handleOrderExpired);
     }
 
     @Transactional
@@ -28,6 +32,12 @@ public class OrderExpiredHandler {
                 event.getOrderId(), event.getEventId());
 
         try {
+            if (notificationCoalescer.isEnabled()) {
+                notificationCoalescer.add(event);
+                log.info("Order expired notification for order {} queued for user {} digest",
+                        event.getOrderId(), event.getUserId());
+                return;
+            }
             notificationService.saveOrderExpiredNotification(event);
             log.info("Order expired notification processed for order {}", event.getOrderId());
         } catch (Exception e) {
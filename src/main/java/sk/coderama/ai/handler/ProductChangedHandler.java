@@ -0,0 +1,45 @@
+package sk.coderama.ai.handler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import sk.coderama.ai.catalog.ProductCatalog;
+import sk.coderama.ai.event.ProductChangedEvent;
+import sk.coderama.ai.metrics.EventMetrics;
+import sk.coderama.ai.service.ProductService;
+
+import java.util.function.Consumer;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ProductChangedHandler {
+
+    private final ProductCatalog productCatalog;
+    private final ProductService productService;
+    private final EventMetrics eventMetrics;
+
+    @Bean
+    public Consumer<ProductChangedEvent> productChanged() {
+        return eventMetrics.timedHandler("productChanged", this::handleProductChanged);
+    }
+
+    public void handleProductChanged(ProductChangedEvent event) {
+        if (productCatalog.getNodeId().equals(event.getOriginNodeId())) {
+            log.debug("Ignoring ProductChangedEvent {} published by this node", event.getEventId());
+            return;
+        }
+
+        log.info("Processing ProductChangedEvent for product {} ({}), eventId: {}",
+                event.getProductId(), event.getChangeType(), event.getEventId());
+
+        // Marked before rebuilding, so a failed rebuild is retried by the next catalog read
+        productCatalog.markChanged(event.getTimestamp());
+        try {
+            productService.refreshCatalog();
+        } catch (Exception e) {
+            log.error("Error refreshing product catalog after ProductChangedEvent {}", event.getEventId(), e);
+        }
+    }
+}
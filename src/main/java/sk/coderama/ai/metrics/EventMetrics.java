@@ -0,0 +1,67 @@
+package sk.coderama.ai.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Timers for the Spring Cloud Stream bindings, tagged with the binding name (a handful, fixed in
+ * application.properties) and, for publishing, the outcome.
+ */
+@Component
+public class EventMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> publishTimers = new ConcurrentHashMap<>();
+
+    public EventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Wraps a consumer binding so every event it handles is timed under {@code event.handler}.
+     */
+    public <T> Consumer<T> timedHandler(String binding, Consumer<T> handler) {
+        Timer timer = Timer.builder("event.handler")
+                .description("Time to handle one consumed event")
+                .tag("binding", binding)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+        return event -> timer.record(() -> handler.accept(event));
+    }
+
+    /**
+     * Runs a send and times it under {@code event.publish}; a send that throws counts as an error.
+     */
+    public boolean timedSend(String binding, BooleanSupplier send) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            boolean sent = send.getAsBoolean();
+            outcome = sent ? "sent" : "rejected";
+            return sent;
+        } finally {
+            publishTimer(binding, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer publishTimer(String binding, String outcome) {
+        return publishTimers.computeIfAbsent(binding + ':' + outcome, key -> Timer.builder("event.publish")
+                .description("Time StreamBridge.send took to hand an event to the binder")
+                .tag("binding", binding)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,103 @@
+package sk.coderama.ai.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.entity.OrderStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Order pipeline metrics. Tags only take enum values, so the number of series is fixed no matter how many
+ * orders flow through. Lifecycle timers use a few fixed buckets around the payment time and the 10 minute
+ * expiry instead of a full percentile histogram, as an order takes seconds to minutes, not milliseconds.
+ */
+@Component
+public class OrderMetrics {
+
+    private static final Duration[] LIFECYCLE_BUCKETS = {
+            Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2),
+            Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(30),
+            Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(10), Duration.ofMinutes(15)
+    };
+
+    private final MeterRegistry meterRegistry;
+    private final Map<OrderStatus, Map<OrderStatus, Timer>> transitions = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, Timer> completions = new EnumMap<>(OrderStatus.class);
+    private final Counter paymentsSucceeded;
+    private final Counter paymentsFailed;
+    private final DistributionSummary expirationBatch;
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        // Only the transitions the pipeline makes; manual status updates through the API are not timed
+        transition(OrderStatus.PENDING, OrderStatus.PROCESSING);
+        transition(OrderStatus.PROCESSING, OrderStatus.COMPLETED);
+        transition(OrderStatus.PENDING, OrderStatus.EXPIRED);
+        transition(OrderStatus.PROCESSING, OrderStatus.EXPIRED);
+        for (OrderStatus outcome : new OrderStatus[]{OrderStatus.COMPLETED, OrderStatus.EXPIRED}) {
+            completions.put(outcome, Timer.builder("order.lifecycle.total")
+                    .description("Time from order creation until the order completed or expired")
+                    .tag("outcome", outcome.name())
+                    .serviceLevelObjectives(LIFECYCLE_BUCKETS)
+                    .register(meterRegistry));
+        }
+        this.paymentsSucceeded = Counter.builder("order.payments")
+                .description("Payment attempts by outcome")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.paymentsFailed = Counter.builder("order.payments")
+                .description("Payment attempts by outcome")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.expirationBatch = DistributionSummary.builder("order.expiration.batch")
+                .description("Orders expired per expiration run")
+                .baseUnit("orders")
+                .serviceLevelObjectives(1, 10, 100, 1000, 10000)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records how long the order spent in {@code from}, which it entered at {@code enteredAt}.
+     */
+    public void recordTransition(OrderStatus from, OrderStatus to, LocalDateTime enteredAt, LocalDateTime now) {
+        Map<OrderStatus, Timer> byTarget = transitions.get(from);
+        Timer timer = byTarget == null ? null : byTarget.get(to);
+        if (timer != null && enteredAt != null) {
+            timer.record(Duration.between(enteredAt, now));
+        }
+    }
+
+    /**
+     * Records the time from creation until the order reached its final {@code outcome}.
+     */
+    public void recordCompletion(OrderStatus outcome, LocalDateTime createdAt, LocalDateTime now) {
+        Timer timer = completions.get(outcome);
+        if (timer != null && createdAt != null) {
+            timer.record(Duration.between(createdAt, now));
+        }
+    }
+
+    public void recordPayment(boolean success) {
+        (success ? paymentsSucceeded : paymentsFailed).increment();
+    }
+
+    public void recordExpirationRun(int expired) {
+        expirationBatch.record(expired);
+    }
+
+    private void transition(OrderStatus from, OrderStatus to) {
+        transitions.computeIfAbsent(from, status -> new EnumMap<>(OrderStatus.class))
+                .put(to, Timer.builder("order.lifecycle.transition")
+                        .description("Time an order spent in a status before the pipeline moved it on")
+                        .tag("from", from.name())
+                        .tag("to", to.name())
+                        .serviceLevelObjectives(LIFECYCLE_BUCKETS)
+                        .register(meterRegistry));
+    }
+}
@@ -0,0 +1,72 @@
+package sk.coderama.ai.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template pattern split once into literal segments and argument slots, so rendering is a
+ * single pass of appends instead of re-parsing a format string on every call.
+ */
+final class CompiledTemplate {
+
+    private final String[] literals;
+    private final int[] argumentIndexes;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, int[] argumentIndexes) {
+        this.literals = literals;
+        this.argumentIndexes = argumentIndexes;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    static CompiledTemplate compile(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int close = c == '{' ? pattern.indexOf('}', i) : -1;
+            if (close > i + 1 && isDigits(pattern, i + 1, close)) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                indexes.add(Integer.parseInt(pattern, i + 1, close, 10));
+                i = close + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+
+        return new CompiledTemplate(
+                literals.toArray(String[]::new),
+                indexes.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    String render(String[] args) {
+        StringBuilder sb = new StringBuilder(literalLength + 16 * argumentIndexes.length);
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            sb.append(literals[i]);
+            int index = argumentIndexes[i];
+            sb.append(index < args.length ? args[index] : "");
+        }
+        sb.append(literals[literals.length - 1]);
+        return sb.toString();
+    }
+
+    private static boolean isDigits(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
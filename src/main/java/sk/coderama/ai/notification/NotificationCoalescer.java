@@ -0,0 +1,117 @@
+package sk.coderama.ai.notification;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.event.OrderExpiredEvent;
+import sk.coderama.ai.service.NotificationService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffers order-expired events per user and writes them as a single digest notification once
+ * the user's window fills up or its time runs out. A window opens with the user's first event
+ * and is not extended by later ones, so no notification waits longer than the configured window.
+ * <p>
+ * Buffered events live only in memory: they are flushed on shutdown, but a crash loses them.
+ */
+@Slf4j
+@Component
+public class NotificationCoalescer {
+
+    private final NotificationService notificationService;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxSize;
+
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+
+    public NotificationCoalescer(
+            NotificationService notificationService,
+            @Value("${notification.coalescing.enabled:false}") boolean enabled,
+            @Value("${notification.coalescing.window:60s}") Duration window,
+            @Value("${notification.coalescing.max-size:50}") int maxSize
+    ) {
+        this.notificationService = notificationService;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(OrderExpiredEvent event) {
+        List<OrderExpiredEvent> full = new ArrayList<>(0);
+        windows.compute(event.getUserId(), (userId, window) -> {
+            if (window == null) {
+                window = new Window(System.nanoTime());
+            }
+            window.events.add(event);
+            if (window.events.size() >= maxSize) {
+                full.addAll(window.events);
+                return null;
+            }
+            return window;
+        });
+
+        if (!full.isEmpty()) {
+            flush(event.getUserId(), full);
+        }
+    }
+
+    /** Flushes every window whose time is up. */
+    public void flushDue() {
+        long now = System.nanoTime();
+        for (Long userId : windows.keySet()) {
+            List<OrderExpiredEvent> due = new ArrayList<>(0);
+            windows.computeIfPresent(userId, (id, window) -> {
+                if (now - window.openedAt < windowNanos) {
+                    return window;
+                }
+                due.addAll(window.events);
+                return null;
+            });
+            if (!due.isEmpty()) {
+                flush(userId, due);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        for (Long userId : windows.keySet()) {
+            Window window = windows.remove(userId);
+            if (window != null) {
+                flush(userId, window.events);
+            }
+        }
+    }
+
+    public int pendingUsers() {
+        return windows.size();
+    }
+
+    private void flush(Long userId, List<OrderExpiredEvent> events) {
+        try {
+            notificationService.saveOrderExpiredDigest(userId, events);
+        } catch (Exception e) {
+            log.error("Error flushing {} coalesced expiration events for user {}", events.size(), userId, e);
+        }
+    }
+
+    private static final class Window {
+        private final long openedAt;
+        private final List<OrderExpiredEvent> events = new ArrayList<>();
+
+        private Window(long openedAt) {
+            this.openedAt = openedAt;
+        }
+    }
+}
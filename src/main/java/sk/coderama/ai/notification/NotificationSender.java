@@ -0,0 +1,13 @@
+package sk.coderama.ai.notification;
+
+import sk.coderama.ai.entity.Notification;
+import sk.coderama.ai.entity.NotificationChannel;
+
+/**
+ * Delivers rendered notifications over one channel. Implementations throw on failure; the
+ * delivery worker records the error and schedules a retry.
+ */
+public interface NotificationSender {
+    NotificationChannel getChannel();
+    void send(Notification notification, String message);
+}
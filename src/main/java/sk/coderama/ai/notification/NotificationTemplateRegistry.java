@@ -0,0 +1,67 @@
+package sk.coderama.ai.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.entity.Notification;
+import sk.coderama.ai.entity.NotificationTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles every {@link NotificationTemplate} once at startup and renders notification text on
+ * demand. Rows only store the template id and a compact parameter payload; the full message is
+ * produced when it is read.
+ */
+@Slf4j
+@Component
+public class NotificationTemplateRegistry {
+
+    /** ASCII unit separator; never appears in amounts, references or status names. */
+    public static final char PARAM_SEPARATOR = '\u001F';
+
+    private final Map<NotificationTemplate, CompiledTemplate> templates = new EnumMap<>(NotificationTemplate.class);
+
+    public NotificationTemplateRegistry() {
+        for (NotificationTemplate template : NotificationTemplate.values()) {
+            templates.put(template, CompiledTemplate.compile(template.getPattern()));
+        }
+        log.info("Compiled {} notification templates", templates.size());
+    }
+
+    public String render(Notification notification) {
+        return render(notification.getTemplate(), notification.getOrderId(), notification.getTemplateParams());
+    }
+
+    public String render(NotificationTemplate template, Long orderId, String params) {
+        return templates.get(template).render(decodeParams(orderId, params));
+    }
+
+    public static String encodeParams(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(PARAM_SEPARATOR);
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    private static String[] decodeParams(Long orderId, String params) {
+        List<String> args = new ArrayList<>(4);
+        args.add(String.valueOf(orderId));
+        if (params != null) {
+            int start = 0;
+            int end;
+            while ((end = params.indexOf(PARAM_SEPARATOR, start)) >= 0) {
+                args.add(params.substring(start, end));
+                start = end + 1;
+            }
+            args.add(params.substring(start));
+        }
+        return args.toArray(String[]::new);
+    }
+}
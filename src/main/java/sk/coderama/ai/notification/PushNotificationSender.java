@@ -0,0 +1,22 @@
+package sk.coderama.ai.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.entity.Notification;
+import sk.coderama.ai.entity.NotificationChannel;
+
+@Slf4j
+@Component
+public class PushNotificationSender implements NotificationSender {
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.PUSH;
+    }
+
+    @Override
+    public void send(Notification notification, String message) {
+        // Mock delivery - log to console
+        log.debug("Sending push notification to user {} about order {}: {}", notification.getUserId(), notification.getOrderId(), message);
+    }
+}
@@ -0,0 +1,139 @@
+package sk.coderama.ai.replica;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replication lag with a heartbeat: every {@code datasource.replica.heartbeat-interval} this node writes
+ * {@link System#nanoTime()} to its row of {@code replica_heartbeats} on the primary and reads the rows back from the
+ * replica. The replica applies commits in order, so the beat it returns for a node proves every commit made on that
+ * node before that beat was written is there too. The rows of the other nodes let this one check writes they made
+ * (see {@link ReplicaRouter.WritePosition}). The lag is the age of this node's beat; it keeps growing while
+ * heartbeats fail, so a replica that stops replicating, or a node that stops measuring, falls out of use after
+ * {@code datasource.replica.max-lag} on its own.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    // Rows of nodes that have not beaten for this long are deleted
+    private static final Duration ABANDONED_AFTER = Duration.ofDays(1);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagNanos;
+
+    private boolean registered;
+    private volatile boolean replayed;
+    private volatile long replayedBeat;
+    private volatile Map<String, Long> replayedBeats = Map.of();
+    private volatile boolean available = true;
+
+    public ReplicaLagMonitor(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${datasource.replica.max-lag:5s}") Duration maxLag,
+            MeterRegistry meterRegistry
+    ) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagNanos = maxLag.toNanos();
+
+        TimeGauge.builder("datasource.replica.lag", this, TimeUnit.NANOSECONDS, ReplicaLagMonitor::lagNanos)
+                .description("Age of the newest heartbeat from this node that the replica has replayed")
+                .register(meterRegistry);
+    }
+
+    public synchronized void heartbeat() {
+        long beat = System.nanoTime();
+        Timestamp now = Timestamp.from(Instant.now());
+        if (!registered) {
+            primary.update("DELETE FROM replica_heartbeats WHERE beat_at < ?",
+                    Timestamp.from(Instant.now().minus(ABANDONED_AFTER)));
+            primary.update("INSERT INTO replica_heartbeats (node_id, beat, beat_at) VALUES (?, ?, ?)", nodeId, beat, now);
+            registered = true;
+        } else {
+            primary.update("UPDATE replica_heartbeats SET beat = ?, beat_at = ? WHERE node_id = ?", beat, now, nodeId);
+        }
+
+        Map<String, Long> beats = new HashMap<>();
+        try {
+            replica.query("SELECT node_id, beat FROM replica_heartbeats",
+                    (RowCallbackHandler) rs -> beats.put(rs.getString("node_id"), rs.getLong("beat")));
+        } catch (DataAccessException e) {
+            markUnavailable(e);
+            return;
+        }
+        replayedBeats = beats;
+        Long own = beats.get(nodeId);
+        if (own != null) {
+            replayedBeat = own;
+            replayed = true;
+        }
+        if (!available) {
+            log.info("Replica reachable again, lag {} ms", TimeUnit.NANOSECONDS.toMillis((long) lagNanos()));
+            available = true;
+        }
+    }
+
+    boolean isAvailable() {
+        return available;
+    }
+
+    boolean isWithinMaxLag() {
+        return replayed && System.nanoTime() - replayedBeat <= maxLagNanos;
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Whether the replica has everything this node committed before {@code nanoTime}.
+     */
+    boolean hasReplayed(long nanoTime) {
+        return replayed && replayedBeat - nanoTime > 0;
+    }
+
+    /**
+     * Whether the replica has everything {@code node} committed before its {@code nanoTime}; false for a node whose
+     * heartbeat the replica has not returned.
+     */
+    boolean hasReplayed(String node, long nanoTime) {
+        if (nodeId.equals(node)) {
+            return hasReplayed(nanoTime);
+        }
+        Long beat = replayedBeats.get(node);
+        return beat != null && beat - nanoTime > 0;
+    }
+
+    void markUnavailable(Exception e) {
+        if (available) {
+            log.warn("Replica unavailable, reading from the primary until a heartbeat reaches it: {}", e.getMessage());
+            available = false;
+        }
+    }
+
+    private double lagNanos() {
+        return replayed ? System.nanoTime() - replayedBeat : Double.NaN;
+    }
+}
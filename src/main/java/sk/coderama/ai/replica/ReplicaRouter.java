@@ -0,0 +1,202 @@
+package sk.coderama.ai.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Decides where a connection comes from. Writes, and everything outside an authenticated request (schedulers, event
+ * consumers, login), use the primary. A read-only transaction of an authenticated user goes to the replica only if
+ * the replica is within {@code datasource.replica.max-lag} and has replayed a heartbeat written after the user's
+ * last write; until then that user reads the primary, so they always see their own writes.
+ * <p>
+ * A write is timed when its transaction commits, before the response is written, so the user's next request cannot
+ * arrive before the write counts; a write outside a transaction is timed when the request ends. The last write is
+ * kept per user on this node and also handed to the client as a {@link WritePosition} (see
+ * {@link ReplicaSessionFilter}), which the next request brings to whichever node serves it. A position is the
+ * writing node's id and {@link System#nanoTime()}, checked against the heartbeat of that node, so the comparison
+ * needs no clock agreement between nodes.
+ */
+@Component
+@ConditionalOnProperty(value = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaRouter {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final ThreadLocal<Session> current = new ThreadLocal<>();
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final Map<Route, Counter> reads = new EnumMap<>(Route.class);
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRouter(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        for (Route route : Route.values()) {
+            reads.put(route, Counter.builder("datasource.replica.reads")
+                    .description("Read-only transactions of authenticated requests, by the pool that served them")
+                    .tag("target", route == Route.REPLICA ? "replica" : "primary")
+                    .tag("reason", route.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs {@code work} on the primary even inside a read-only transaction. For loads whose result outlives the
+     * request, such as shared caches, which must not be built from a lagging replica. Only takes effect if the
+     * transaction has not run a statement yet.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean outer = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                PINNED_TO_PRIMARY.remove();
+            }
+        }
+    }
+
+    Session open(Long userId, WritePosition clientWrite) {
+        Session session = new Session(userId, clientWrite);
+        current.set(session);
+        return session;
+    }
+
+    void close(Session session) {
+        current.remove();
+        if (session.untimedWrite) {
+            recordWrite(session);
+        }
+    }
+
+    /**
+     * Position of the last write the request committed, or null if it wrote nothing.
+     */
+    WritePosition lastWrite(Session session) {
+        return session.lastWrite == null ? null : new WritePosition(lagMonitor.getNodeId(), session.lastWrite);
+    }
+
+    boolean routeToReplica(boolean readOnly) {
+        Session session = current.get();
+        if (session == null) {
+            return false;
+        }
+        if (!readOnly) {
+            session.wrote = true;
+            timeWriteOnCommit(session);
+            return false;
+        }
+        if (PINNED_TO_PRIMARY.get() != null) {
+            return false;
+        }
+        Route route = route(session);
+        reads.get(route).increment();
+        return route == Route.REPLICA;
+    }
+
+    /**
+     * Drops write times the replica has caught up with; they can no longer keep anyone on the primary.
+     */
+    public void forgetReplicatedWrites() {
+        lastWriteByUser.values().removeIf(lagMonitor::hasReplayed);
+    }
+
+    private void timeWriteOnCommit(Session session) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            session.untimedWrite = true;
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(session);
+            }
+        });
+    }
+
+    private void recordWrite(Session session) {
+        long now = System.nanoTime();
+        lastWriteByUser.merge(session.userId, now, Math::max);
+        session.lastWrite = now;
+    }
+
+    private Route route(Session session) {
+        if (session.wrote) {
+            return Route.OWN_WRITE;
+        }
+        if (!lagMonitor.isAvailable()) {
+            return Route.UNAVAILABLE;
+        }
+        if (!lagMonitor.isWithinMaxLag()) {
+            return Route.LAGGING;
+        }
+        Long lastWrite = lastWriteByUser.get(session.userId);
+        if (lastWrite != null && !lagMonitor.hasReplayed(lastWrite)) {
+            return Route.OWN_WRITE;
+        }
+        WritePosition clientWrite = session.clientWrite;
+        if (clientWrite != null && !lagMonitor.hasReplayed(clientWrite.node(), clientWrite.nanoTime())) {
+            return Route.OWN_WRITE;
+        }
+        return Route.REPLICA;
+    }
+
+    private enum Route {
+        REPLICA, OWN_WRITE, LAGGING, UNAVAILABLE
+    }
+
+    /**
+     * The authenticated request on this thread; touched only by that thread.
+     */
+    static final class Session {
+
+        private final Long userId;
+        private final WritePosition clientWrite;
+        private boolean wrote;
+        private boolean untimedWrite;
+        private Long lastWrite;
+
+        private Session(Long userId, WritePosition clientWrite) {
+            this.userId = userId;
+            this.clientWrite = clientWrite;
+        }
+    }
+
+    /**
+     * A committed write as the client carries it between requests: the node that made it and that node's
+     * {@link System#nanoTime()} right after the commit.
+     */
+    record WritePosition(String node, long nanoTime) {
+
+        private static final char SEPARATOR = '.';
+
+        /**
+         * The position {@link #toString()} wrote, or null if {@code value} is not one; it comes from the client.
+         */
+        static WritePosition parse(String value) {
+            int separator = value == null ? -1 : value.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                return null;
+            }
+            try {
+                return new WritePosition(value.substring(0, separator), Long.parseLong(value.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return node + SEPARATOR + nanoTime;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package sk.coderama.ai.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import sk.coderama.ai.security.UserPrincipal;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Opens a {@link ReplicaRouter} session for each authenticated request. Registered with the default (lowest)
+ * order, so it runs after the security filter chain has authenticated the request; whatever the chain itself reads
+ * stays on the primary.
+ * <p>
+ * A request that commits a write answers with its position in the {@value #WRITE_COOKIE} cookie, set just before
+ * the response is committed, and a request bringing the cookie back reads the primary until the replica has that
+ * write, whichever node serves it. The cookie lives one second longer than {@code datasource.replica.max-lag}: by
+ * then a replica within the max lag has the write anyway.
+ */
+@Component
+@ConditionalOnProperty(value = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaSessionFilter extends OncePerRequestFilter {
+
+    static final String WRITE_COOKIE = "replica-write";
+
+    private final ReplicaRouter replicaRouter;
+    private final Duration cookieMaxAge;
+
+    public ReplicaSessionFilter(
+            ReplicaRouter replicaRouter,
+            @Value("${datasource.replica.max-lag:5s}") Duration maxLag
+    ) {
+        this.replicaRouter = replicaRouter;
+        this.cookieMaxAge = Duration.ofSeconds(maxLag.plusNanos(999_999_999).toSeconds() + 1);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ReplicaRouter.Session session = replicaRouter.open(principal.getId(), clientWrite(request));
+        WriteCookieResponse wrapped = new WriteCookieResponse(response, session);
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            replicaRouter.close(session);
+            // A body-less response is committed by the container after this filter, so the cookie goes out now
+            if (!response.isCommitted()) {
+                wrapped.addWriteCookie();
+            }
+        }
+    }
+
+    private static ReplicaRouter.WritePosition clientWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (WRITE_COOKIE.equals(cookie.getName())) {
+                return ReplicaRouter.WritePosition.parse(cookie.getValue());
+            }
+        }
+        return null;
+    }
+
+    private final class WriteCookieResponse extends OnCommittedResponseWrapper {
+
+        private final ReplicaRouter.Session session;
+        private boolean added;
+
+        private WriteCookieResponse(HttpServletResponse response, ReplicaRouter.Session session) {
+            super(response);
+            this.session = session;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            addWriteCookie();
+        }
+
+        private void addWriteCookie() {
+            ReplicaRouter.WritePosition lastWrite = replicaRouter.lastWrite(session);
+            if (added || lastWrite == null) {
+                return;
+            }
+            added = true;
+            addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(WRITE_COOKIE, lastWrite.toString())
+                    .path("/")
+                    .maxAge(cookieMaxAge)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+        }
+    }
+}
@@ -1,13 +1,111 @@
 package sk.coderama.ai.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sk.coderama.ai.entity.Notification;
+import sk.coderama.ai.entity.NotificationEventType;
+import sk.coderama.ai.entity.NotificationStatus;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByOrderId(Long orderId);
     List<Notification> findByUserId(Long userId);
+
+    /**
+     * Newest-first page of a user's notifications strictly after the keyset position
+     * (beforeCreatedAt, beforeId). Walks idx_notifications_user_feed, so cost depends on the
+     * page size rather than on how many notifications the user has. The leading
+     * {@code createdAt <= :beforeCreatedAt} gives PostgreSQL a range bound on the index; the OR alone does not.
+     */
+    @Query("""
+            select n from Notification n
+            where n.userId = :userId
+              and (:status is null or n.status = :status)
+              and (:eventType is null or n.eventType = :eventType)
+              and n.createdAt <= :beforeCreatedAt
+              and (n.createdAt < :beforeCreatedAt or n.id < :beforeId)
+            order by n.createdAt desc, n.id desc
+            """)
+    List<Notification> findFeedPage(
+            @Param("userId") Long userId,
+            @Param("status") NotificationStatus status,
+            @Param("eventType") NotificationEventType eventType,
+            @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            Limit limit
+    );
+
+    /**
+     * Locks the oldest due PENDING notifications, skipping rows another worker already holds.
+     * Served by idx_notifications_status (status, next_attempt_at).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select n from Notification n
+            where n.status = sk.coderama.ai.entity.NotificationStatus.PENDING
+              and n.nextAttemptAt <= :now
+            order by n.nextAttemptAt
+            """)
+    List<Notification> findDueForDelivery(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("""
+            update Notification n
+            set n.attempts = n.attempts + 1, n.nextAttemptAt = :leaseUntil
+            where n.id in :ids
+            """)
+    int claim(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("""
+            update Notification n
+            set n.status = sk.coderama.ai.entity.NotificationStatus.SENT, n.nextAttemptAt = null, n.lastError = null
+            where n.id in :ids
+            """)
+    int markSent(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+            update Notification n
+            set n.status = :status, n.nextAttemptAt = :nextAttemptAt, n.lastError = :lastError
+            where n.id = :id
+            """)
+    int markAttemptFailed(
+            @Param("id") Long id,
+            @Param("status") NotificationStatus status,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("lastError") String lastError
+    );
+
+    /** Deletes up to {@code limit} digest entries covering the user's orders; used by the user purge. */
+    @Modifying
+    @Query(value = """
+            DELETE FROM notification_digest_orders WHERE (notification_id, order_id) IN (
+                SELECT d.notification_id, d.order_id
+                FROM notification_digest_orders d JOIN orders o ON o.id = d.order_id
+                WHERE o.user_id = :userId
+                LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteDigestOrdersBatchByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /** Deletes up to {@code limit} of the user's notifications; used by the user purge. */
+    @Modifying
+    @Query(value = """
+            DELETE FROM notifications WHERE user_id = :userId AND id IN (
+                SELECT id FROM notifications WHERE user_id = :userId LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 }
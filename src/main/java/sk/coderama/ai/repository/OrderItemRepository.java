@@ -1,9 +1,22 @@
 package sk.coderama.ai.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sk.coderama.ai.entity.OrderItem;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    /** Deletes up to {@code limit} items of the user's orders; used by the user purge. */
+    @Modifying
+    @Query(value = """
+            DELETE FROM order_items WHERE id IN (
+                SELECT oi.id FROM order_items oi JOIN orders o ON o.id = oi.order_id
+                WHERE o.user_id = :userId
+                LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 }
@@ -1,11 +1,16 @@
 package sk.coderama.ai.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import sk.coderama.ai.entity.Order;
 import sk.coderama.ai.entity.OrderStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +19,30 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(Long userId);
 
     List<Order> findByStatusInAndCreatedAtBefore(List<OrderStatus> statuses, LocalDateTime createdAtBefore);
+
+    /**
+     * Moves the order to {@code to} only while it is still in one of the {@code from} statuses, so concurrent
+     * status changes cannot overwrite each other. Returns 1 if this call made the transition, 0 otherwise.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update Order o
+            set o.status = :to, o.version = o.version + 1, o.updatedAt = :now
+            where o.id = :id and o.status in :from
+            """)
+    int transitionStatus(
+            @Param("id") Long id,
+            @Param("from") Collection<OrderStatus> from,
+            @Param("to") OrderStatus to,
+            @Param("now") LocalDateTime now
+    );
+
+    /** Deletes up to {@code limit} of the user's orders, whose items and notifications must be gone already. */
+    @Modifying
+    @Query(value = """
+            DELETE FROM orders WHERE id IN (
+                SELECT id FROM orders WHERE user_id = :userId LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 }
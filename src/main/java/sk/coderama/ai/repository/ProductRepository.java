@@ -1,9 +1,123 @@
 package sk.coderama.ai.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sk.coderama.ai.entity.Product;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * Filters shared by the listing pages below. Each sort order has its own query that continues strictly
+     * after the keyset position of the previous page (null on the first page). The leading {@code >=}/{@code <=}
+     * on the sort column lets price and name sorts start their scan of idx_products_price_id or
+     * idx_products_name_id (V13) at the cursor, so a page costs about its own size however deep it is.
+     * namePattern is a lower-case LIKE prefix.
+     */
+    String LISTING_FILTERS = """
+            (:minPrice is null or p.price >= :minPrice)
+              and (:maxPrice is null or p.price <= :maxPrice)
+              and (:inStock = false or p.stock > 0)
+              and (:namePattern is null or lower(p.name) like :namePattern escape '\\')
+            """;
+
+    @Query("select p from Product p where " + LISTING_FILTERS + """
+              and (:afterId is null or p.id > :afterId)
+            order by p.id
+            """)
+    List<Product> findListingPageById(
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("inStock") boolean inStock,
+            @Param("namePattern") String namePattern,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+
+    @Query("select p from Product p where " + LISTING_FILTERS + """
+              and (:afterId is null or (p.price >= :afterPrice
+                   and (p.price > :afterPrice or p.id > :afterId)))
+            order by p.price, p.id
+            """)
+    List<Product> findListingPageByPriceAsc(
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("inStock") boolean inStock,
+            @Param("namePattern") String namePattern,
+            @Param("afterPrice") BigDecimal afterPrice,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+
+    @Query("select p from Product p where " + LISTING_FILTERS + """
+              and (:beforeId is null or (p.price <= :beforePrice
+                   and (p.price < :beforePrice or p.id < :beforeId)))
+            order by p.price desc, p.id desc
+            """)
+    List<Product> findListingPageByPriceDesc(
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("inStock") boolean inStock,
+            @Param("namePattern") String namePattern,
+            @Param("beforePrice") BigDecimal beforePrice,
+            @Param("beforeId") Long beforeId,
+            Limit limit
+    );
+
+    @Query("select p from Product p where " + LISTING_FILTERS + """
+              and (:afterId is null or (p.name >= :afterName
+                   and (p.name > :afterName or p.id > :afterId)))
+            order by p.name, p.id
+            """)
+    List<Product> findListingPageByNameAsc(
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("inStock") boolean inStock,
+            @Param("namePattern") String namePattern,
+            @Param("afterName") String afterName,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+
+    @Query("select p from Product p where " + LISTING_FILTERS + """
+              and (:beforeId is null or (p.name <= :beforeName
+                   and (p.name < :beforeName or p.id < :beforeId)))
+            order by p.name desc, p.id desc
+            """)
+    List<Product> findListingPageByNameDesc(
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("inStock") boolean inStock,
+            @Param("namePattern") String namePattern,
+            @Param("beforeName") String beforeName,
+            @Param("beforeId") Long beforeId,
+            Limit limit
+    );
+
+    /**
+     * Ranked full-text matches after the (rank, id) keyset position, best first. PostgreSQL only:
+     * search_vector and its GIN index come from the vendor migration V12_1.
+     */
+    @Query(value = """
+            select ranked.id as id, ranked.rank as rank
+            from (select p.id, cast(ts_rank_cd(p.search_vector, q.query) as double precision) as rank
+                  from products p, to_tsquery('english', :query) as q(query)
+                  where p.search_vector @@ q.query) ranked
+            where ranked.rank < :beforeRank
+               or (ranked.rank = :beforeRank and ranked.id > :afterId)
+            order by ranked.rank desc, ranked.id
+            limit :limit
+            """, nativeQuery = true)
+    List<ProductSearchHit> searchPage(
+            @Param("query") String query,
+            @Param("beforeRank") double beforeRank,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit
+    );
 }
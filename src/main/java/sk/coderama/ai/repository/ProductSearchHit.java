@@ -0,0 +1,8 @@
+package sk.coderama.ai.repository;
+
+public interface ProductSearchHit {
+
+    Long getId();
+
+    Double getRank();
+}
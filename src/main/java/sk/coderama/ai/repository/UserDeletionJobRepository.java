@@ -0,0 +1,42 @@
+package sk.coderama.ai.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import sk.coderama.ai.entity.UserDeletionJob;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserDeletionJobRepository extends JpaRepository<UserDeletionJob, Long> {
+
+    Optional<UserDeletionJob> findByUserId(Long userId);
+
+    /**
+     * Locks the oldest due PENDING jobs, skipping jobs another worker already holds.
+     * Served by idx_user_deletion_jobs_due (status, next_run_at).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select j from UserDeletionJob j
+            where j.status = sk.coderama.ai.entity.UserDeletionStatus.PENDING
+              and j.nextRunAt <= :now
+            order by j.nextRunAt
+            """)
+    List<UserDeletionJob> findDue(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("update UserDeletionJob j set j.nextRunAt = :leaseUntil where j.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
@@ -1,15 +1,54 @@
 package sk.coderama.ai.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sk.coderama.ai.entity.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    boolean existsByEmail(String email);
+    String DIRECTORY_COLUMNS =
+            "select u.id as id, u.name as name, u.email as email, u.createdAt as createdAt, u.updatedAt as updatedAt";
 
     Optional<User> findByEmail(String email);
+
+    /** Removes the row of a user whose deletion was requested; native, as deleted users are invisible to JPQL. */
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int deleteMarkedById(@Param("id") Long id);
+
+    /**
+     * Directory page in email order, walking idx_users_email from {@code afterEmail} ("" for the first page). On
+     * PostgreSQL the column is in the C collation (vendor migration V18_3), so the order and the cursor comparison are
+     * byte order and match the index whatever the database collation.
+     */
+    @Query(DIRECTORY_COLUMNS + """
+             from User u
+            where u.email > :afterEmail
+            order by u.email
+            """)
+    List<UserSummary> findDirectoryPage(@Param("afterEmail") String afterEmail, Limit limit);
+
+    /**
+     * Same as {@link #findDirectoryPage} restricted to a LIKE prefix pattern, which PostgreSQL turns into a range
+     * on idx_users_email next to the cursor, so the page needs no sort.
+     */
+    @Query(DIRECTORY_COLUMNS + """
+             from User u
+            where u.email like :emailPattern escape '\\'
+              and u.email > :afterEmail
+            order by u.email
+            """)
+    List<UserSummary> findDirectoryPageByEmailPrefix(
+            @Param("emailPattern") String emailPattern,
+            @Param("afterEmail") String afterEmail,
+            Limit limit
+    );
 }
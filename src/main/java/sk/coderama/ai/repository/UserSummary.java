@@ -0,0 +1,19 @@
+package sk.coderama.ai.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The user columns the directory returns; queries select exactly these, never the password hash.
+ */
+public interface UserSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
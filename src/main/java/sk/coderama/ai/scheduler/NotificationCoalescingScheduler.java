@@ -0,0 +1,26 @@
+package sk.coderama.ai.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.notification.NotificationCoalescer;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "notification.coalescing.enabled", havingValue = "true")
+public class NotificationCoalescingScheduler {
+
+    private final NotificationCoalescer notificationCoalescer;
+
+    @Scheduled(fixedDelayString = "${notification.coalescing.flush-interval:1000}")
+    public void flushDueWindows() {
+        try {
+            notificationCoalescer.flushDue();
+        } catch (Exception e) {
+            log.error("Error flushing notification coalescing windows", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package sk.coderama.ai.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.service.NotificationDeliveryService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "notification.delivery.enabled", havingValue = "true")
+public class NotificationDeliveryScheduler {
+
+    private final NotificationDeliveryService notificationDeliveryService;
+
+    @Scheduled(fixedDelayString = "${notification.delivery.poll-interval:1000}", initialDelay = 5000)
+    public void deliverDueNotifications() {
+        try {
+            notificationDeliveryService.deliverDueNotifications();
+        } catch (Exception e) {
+            log.error("Error during notification delivery", e);
+        }
+    }
+}
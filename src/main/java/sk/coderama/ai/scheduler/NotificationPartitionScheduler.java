@@ -0,0 +1,37 @@
+package sk.coderama.ai.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.service.NotificationPartitionService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "notification.partitioning.enabled", havingValue = "true")
+public class NotificationPartitionScheduler {
+
+    private final NotificationPartitionService notificationPartitionService;
+
+    // Once on startup so a freshly deployed node never inserts into a missing month
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${notification.partitioning.cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        log.debug("Running notification partition maintenance");
+
+        try {
+            notificationPartitionService.createFuturePartitions();
+            notificationPartitionService.applyRetention();
+        } catch (Exception e) {
+            log.error("Error during notification partition maintenance", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package sk.coderama.ai.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.service.ProductService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogScheduler {
+
+    private final ProductService productService;
+
+    @Scheduled(fixedDelayString = "${product.catalog.refresh-interval:10000}", initialDelay = 10000)
+    public void refreshCatalog() {
+        try {
+            productService.refreshCatalog();
+        } catch (Exception e) {
+            log.error("Error refreshing product catalog", e);
+        }
+    }
+}
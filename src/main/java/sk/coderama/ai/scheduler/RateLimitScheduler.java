@@ -0,0 +1,25 @@
+package sk.coderama.ai.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.security.RateLimitFilter;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitScheduler {
+
+    private final RateLimitFilter rateLimitFilter;
+
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void evictIdleBuckets() {
+        try {
+            int evicted = rateLimitFilter.evictIdleBuckets();
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        } catch (Exception e) {
+            log.error("Error evicting idle rate limit buckets", e);
+        }
+    }
+}
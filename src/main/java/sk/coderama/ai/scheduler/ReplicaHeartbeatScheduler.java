@@ -0,0 +1,29 @@
+package sk.coderama.ai.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.replica.ReplicaLagMonitor;
+import sk.coderama.ai.replica.ReplicaRouter;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaHeartbeatScheduler {
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ReplicaRouter replicaRouter;
+
+    @Scheduled(fixedDelayString = "${datasource.replica.heartbeat-interval:1000}")
+    public void heartbeat() {
+        try {
+            replicaLagMonitor.heartbeat();
+            replicaRouter.forgetReplicatedWrites();
+        } catch (Exception e) {
+            log.error("Error measuring replica lag", e);
+        }
+    }
+}
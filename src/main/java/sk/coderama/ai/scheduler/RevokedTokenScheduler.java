@@ -0,0 +1,33 @@
+package sk.coderama.ai.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.service.TokenRevocationService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedTokenScheduler {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:30000}", initialDelay = 30000)
+    public void syncRecentRevocations() {
+        try {
+            tokenRevocationService.syncRecentRevocations();
+        } catch (Exception e) {
+            log.error("Error syncing revoked tokens", e);
+        }
+    }
+
+    @Scheduled(cron = "${jwt.revocation.rebuild-cron:0 0 * * * *}")
+    public void rebuild() {
+        try {
+            tokenRevocationService.rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding token revocation filter", e);
+        }
+    }
+}
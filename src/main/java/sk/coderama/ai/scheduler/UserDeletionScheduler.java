@@ -0,0 +1,26 @@
+package sk.coderama.ai.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sk.coderama.ai.service.UserDeletionService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "user.deletion.enabled", havingValue = "true")
+public class UserDeletionScheduler {
+
+    private final UserDeletionService userDeletionService;
+
+    @Scheduled(fixedDelayString = "${user.deletion.poll-interval:5000}", initialDelay = 10000)
+    public void purgeDueDeletions() {
+        try {
+            userDeletionService.purgeDueDeletions();
+        } catch (Exception e) {
+            log.error("Error during user data purge", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package sk.coderama.ai.security;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over token ids. A negative answer is definite; a positive one may be a
+ * false positive at roughly the configured rate and has to be confirmed elsewhere. Ids are
+ * expected to be UUIDs, whose 128 random bits are used directly for double hashing.
+ */
+public final class JtiBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public JtiBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (bits + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.words = new AtomicLongArray((int) (bitCount / 64));
+    }
+
+    public void put(String jti) {
+        UUID uuid = asUuid(jti);
+        long h1 = hash1(jti, uuid);
+        long h2 = hash2(uuid, h1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            while (((word = words.get(index)) & mask) == 0
+                    && !words.compareAndSet(index, word, word | mask)) {
+                // retry until this bit is set
+            }
+        }
+    }
+
+    public boolean mightContain(String jti) {
+        UUID uuid = asUuid(jti);
+        long h1 = hash1(jti, uuid);
+        long h2 = hash2(uuid, h1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    private static long hash1(String jti, UUID uuid) {
+        return mix(uuid != null ? uuid.getMostSignificantBits() : jti.hashCode());
+    }
+
+    private static long hash2(UUID uuid, long h1) {
+        // Odd, so successive probes never collapse onto the same bit
+        return mix(uuid != null ? uuid.getLeastSignificantBits() : h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+    }
+
+    private static UUID asUuid(String jti) {
+        if (jti.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(jti);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e7a5d7db5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,5 +1,6 @@
 package sk.coderama.ai.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,11 +10,11 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import sk.coderama.ai.service.TokenRevocationService;
 
 import java.io.IOException;
 
@@ -22,7 +23,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -33,10 +35,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String email = jwtTokenProvider.getEmailFromToken(jwt);
+            Claims claims = StringUtils.hasText(jwt) ? jwtTokenProvider.parseToken(jwt) : null;
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            if (claims != null && !JwtTokenProvider.isRefreshToken(claims) && !isRevoked(claims)) {
+                String email = claims.getSubject();
+                Long userId = JwtTokenProvider.getUserId(claims);
+
+                // Tokens without the userId claim predate it and still need a lookup
+                UserDetails userDetails = userId != null
+                        ? UserPrincipal.fromToken(userId, email)
+                        : userPrincipalCache.load(email);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -53,6 +61,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Tokens issued before token ids existed cannot be revoked individually
+    private boolean isRevoked(Claims claims) {
+        return claims.getId() != null && tokenRevocationService.isRevoked(claims.getId());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
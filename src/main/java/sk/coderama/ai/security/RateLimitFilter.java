@@ -0,0 +1,120 @@
+package sk.coderama.ai.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import sk.coderama.ai.config.RateLimitProperties;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs after {@link JwtAuthenticationFilter}, so requests are limited per authenticated user.
+ * Unauthenticated requests (login, registration, token refresh) are limited per client IP.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private final List<PathPattern> patterns;
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.patterns = properties.getRules().stream()
+                .map(rule -> PathPatternParser.defaultInstance.parse(rule.getPath()))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (properties.isEnabled()) {
+            int ruleIndex = findRule(request);
+            if (ruleIndex >= 0) {
+                RateLimitProperties.Rule rule = properties.getRules().get(ruleIndex);
+                String key = ruleIndex + ":" + clientKey(request);
+                long waitNanos = rateLimiter.tryAcquire(
+                        key, rule.getCapacity(), rule.getPeriod().toNanos(), System.nanoTime());
+                if (waitNanos > 0) {
+                    reject(request, response, waitNanos);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    public int evictIdleBuckets() {
+        return rateLimiter.evictIdle(properties.getIdleEviction().toNanos(), System.nanoTime());
+    }
+
+    private int findRule(HttpServletRequest request) {
+        List<RateLimitProperties.Rule> rules = properties.getRules();
+        PathContainer path = null;
+        for (int i = 0; i < rules.size(); i++) {
+            String method = rules.get(i).getMethod();
+            if (method != null && !method.equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            if (path == null) {
+                path = PathContainer.parsePath(request.getRequestURI());
+            }
+            if (patterns.get(i).matches(path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "user:" + principal.getId();
+        }
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            return "user:" + userDetails.getUsername();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        errorResponse.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        errorResponse.put("message", "Rate limit exceeded, retry after " + retryAfterSeconds + " seconds");
+        errorResponse.put("path", request.getRequestURI());
+
+        MAPPER.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,53 @@
+package sk.coderama.ai.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets implemented as GCRA: each bucket is a single AtomicLong holding the theoretical
+ * arrival time (TAT) of the next request, advanced with compare-and-set, so the hot path never
+ * takes a lock. ConcurrentHashMap keeps the buckets; lookups of existing keys are lock-free
+ * and contention on inserts is limited to one hash bin.
+ */
+public class RateLimiter {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Takes one token from the bucket under {@code key}.
+     *
+     * @return 0 when the request is allowed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String key, int capacity, long periodNanos, long nowNanos) {
+        long emissionInterval = periodNanos / capacity;
+        long burstTolerance = emissionInterval * (capacity - 1);
+
+        AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, nowNanos);
+            long wait = base - nowNanos - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets whose TAT lies more than {@code idleNanos} in the past. Such a bucket is full,
+     * so dropping it is equivalent to keeping it.
+     */
+    public int evictIdle(long idleNanos, long nowNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(tat -> nowNanos - tat.get() > idleNanos);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
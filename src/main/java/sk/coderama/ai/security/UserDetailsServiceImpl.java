@@ -8,8 +8,6 @@ import org.springframework.stereotype.Service;
 import sk.coderama.ai.entity.User;
 import sk.coderama.ai.repository.UserRepository;
 
-import java.util.ArrayList;
-
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -21,10 +19,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                new ArrayList<>()
-        );
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getPassword());
     }
 }
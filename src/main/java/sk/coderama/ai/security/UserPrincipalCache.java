@@ -0,0 +1,53 @@
+package sk.coderama.ai.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sk.coderama.ai.cache.BoundedCache;
+import sk.coderama.ai.event.internal.UserChangedInternalEvent;
+
+import java.time.Duration;
+
+/**
+ * Principals loaded from the database for tokens that predate the userId claim, keyed by email.
+ * Entries are evicted once an update or delete of the user commits and otherwise live for the configured
+ * TTL, which bounds staleness on other nodes. When full, an expired or idle principal is evicted.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final long ttlMillis;
+    private final BoundedCache<String, UserDetails> entries;
+
+    public UserPrincipalCache(
+            UserDetailsService userDetailsService,
+            @Value("${jwt.principal-cache.max-size:10000}") int maxSize,
+            @Value("${jwt.principal-cache.ttl:5m}") Duration ttl
+    ) {
+        this.userDetailsService = userDetailsService;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new BoundedCache<>(maxSize);
+    }
+
+    public UserDetails load(String email) {
+        long now = System.currentTimeMillis();
+        UserDetails cached = entries.get(email, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserDetails principal = userDetailsService.loadUserByUsername(email);
+        entries.put(email, principal, now + ttlMillis, now);
+        return principal;
+    }
+
+    // After commit, so a concurrent request cannot re-cache the row as it was before the change
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedInternalEvent event) {
+        entries.remove(event.getEmail());
+    }
+}
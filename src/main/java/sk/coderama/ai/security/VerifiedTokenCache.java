@@ -0,0 +1,61 @@
+package sk.coderama.ai.security;
+
+import io.jsonwebtoken.Claims;
+import sk.coderama.ai.cache.BoundedCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Claims of recently verified tokens, keyed by the SHA-256 of the token so raw bearer tokens are
+ * never retained. An entry is only served until the token's own expiry. The cache is bounded: when
+ * full, an expired or idle token is evicted (see {@link BoundedCache}). Lookups take no lock, since
+ * every authenticated request goes through here.
+ */
+final class VerifiedTokenCache {
+
+    private final BoundedCache<TokenHash, Claims> entries;
+
+    VerifiedTokenCache(int maxSize) {
+        this.entries = new BoundedCache<>(maxSize);
+    }
+
+    Claims get(String token, long nowMillis) {
+        return entries.get(TokenHash.of(token), nowMillis);
+    }
+
+    void put(String token, Claims claims, long nowMillis) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        entries.put(TokenHash.of(token), claims, claims.getExpiration().getTime(), nowMillis);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record TokenHash(byte[] digest, int hash) {
+
+        static TokenHash of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+                return new TokenHash(digest, Arrays.hashCode(digest));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TokenHash other && MessageDigest.isEqual(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
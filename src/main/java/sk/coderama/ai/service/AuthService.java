@@ -1,6 +1,7 @@
 package sk.coderama.ai.service;
 
 import sk.coderama.ai.dto.request.LoginRequest;
+import sk.coderama.ai.dto.request.RefreshTokenRequest;
 import sk.coderama.ai.dto.request.RegisterRequest;
 import sk.coderama.ai.dto.response.JwtResponse;
 import sk.coderama.ai.dto.response.UserResponse;
@@ -10,4 +11,8 @@ public interface AuthService {
     UserResponse register(RegisterRequest request);
 
     JwtResponse login(LoginRequest request);
+
+    JwtResponse refresh(RefreshTokenRequest request);
+
+    void logout(RefreshTokenRequest request, String accessToken);
 }
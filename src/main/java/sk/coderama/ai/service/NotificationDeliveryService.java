@@ -0,0 +1,5 @@
+package sk.coderama.ai.service;
+
+public interface NotificationDeliveryService {
+    int deliverDueNotifications();
+}
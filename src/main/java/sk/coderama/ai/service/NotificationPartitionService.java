@@ -0,0 +1,6 @@
+package sk.coderama.ai.service;
+
+public interface NotificationPartitionService {
+    void createFuturePartitions();
+    void applyRetention();
+}
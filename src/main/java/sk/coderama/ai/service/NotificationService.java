@@ -1,10 +1,19 @@
 package sk.coderama.ai.service;
 
+import sk.coderama.ai.dto.response.CursorPage;
+import sk.coderama.ai.dto.response.NotificationResponse;
+import sk.coderama.ai.entity.NotificationEventType;
+import sk.coderama.ai.entity.NotificationStatus;
 import sk.coderama.ai.event.OrderCompletedEvent;
 import sk.coderama.ai.event.OrderExpiredEvent;
 
+import java.util.List;
+
 public interface NotificationService {
     void sendOrderCompletedEmail(OrderCompletedEvent event);
     void saveOrderCompletedNotification(OrderCompletedEvent event);
     void saveOrderExpiredNotification(OrderExpiredEvent event);
+    void saveOrderExpiredDigest(Long userId, List<OrderExpiredEvent> events);
+    CursorPage<NotificationResponse> getUserNotifications(
+            Long userId, NotificationStatus status, NotificationEventType eventType, String cursor, int size);
 }
@@ -0,0 +1,11 @@
+package sk.coderama.ai.service;
+
+import sk.coderama.ai.dto.request.ProductImportFormat;
+import sk.coderama.ai.dto.response.ProductImportResponse;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    ProductImportResponse importProducts(InputStream input, ProductImportFormat format);
+}
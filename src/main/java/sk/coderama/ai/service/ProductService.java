@@ -1,15 +1,32 @@
 package sk.coderama.ai.service;
 
 import sk.coderama.ai.dto.request.CreateProductRequest;
+import sk.coderama.ai.dto.request.ProductSort;
 import sk.coderama.ai.dto.request.UpdateProductRequest;
+import sk.coderama.ai.dto.response.CursorPage;
 import sk.coderama.ai.dto.response.ProductResponse;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface ProductService {
 
     List<ProductResponse> getAllProducts();
 
+    void refreshCatalog();
+
+    CursorPage<ProductResponse> getProducts(
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            boolean inStock,
+            String namePrefix,
+            ProductSort sort,
+            String cursor,
+            int size
+    );
+
+    CursorPage<ProductResponse> searchProducts(String query, String cursor, int size);
+
     ProductResponse getProductById(Long id);
 
     ProductResponse createProduct(CreateProductRequest request);
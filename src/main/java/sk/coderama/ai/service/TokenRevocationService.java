@@ -0,0 +1,10 @@
+package sk.coderama.ai.service;
+
+import java.util.Date;
+
+public interface TokenRevocationService {
+    boolean revoke(String jti, Date expiresAt);
+    boolean isRevoked(String jti);
+    void syncRecentRevocations();
+    void rebuild();
+}
@@ -0,0 +1,18 @@
+package sk.coderama.ai.service;
+
+import sk.coderama.ai.dto.response.UserDeletionResponse;
+
+public interface UserDeletionService {
+
+    /**
+     * Marks the user deleted at once and queues the purge of their data.
+     */
+    UserDeletionResponse requestDeletion(Long userId);
+
+    UserDeletionResponse getDeletion(Long userId);
+
+    /**
+     * Purges due deletions in small batches until done or out of time; returns the number of jobs completed.
+     */
+    int purgeDueDeletions();
+}
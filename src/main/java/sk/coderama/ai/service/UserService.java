@@ -2,19 +2,19 @@ package sk.coderama.ai.service;
 
 import sk.coderama.ai.dto.request.CreateUserRequest;
 import sk.coderama.ai.dto.request.UpdateUserRequest;
+import sk.coderama.ai.dto.response.CursorPage;
 import sk.coderama.ai.dto.response.UserResponse;
 
-import java.util.List;
-
 public interface UserService {
 
-    List<UserResponse> getAllUsers();
+    /**
+     * One page of the user directory in email order, optionally only emails starting with {@code emailPrefix}.
+     */
+    CursorPage<UserResponse> getUsers(String emailPrefix, String cursor, int size);
 
     UserResponse getUserById(Long id);
 
     UserResponse createUser(CreateUserRequest request);
 
     UserResponse updateUser(Long id, UpdateUserRequest request);
-
-    void deleteUser(Long id);
 }
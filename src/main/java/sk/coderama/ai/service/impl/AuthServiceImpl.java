@@ -1,23 +1,28 @@
 package sk.coderama.ai.service.impl;
 
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sk.coderama.ai.dto.request.LoginRequest;
+import sk.coderama.ai.dto.request.RefreshTokenRequest;
 import sk.coderama.ai.dto.request.RegisterRequest;
 import sk.coderama.ai.dto.response.JwtResponse;
 import sk.coderama.ai.dto.response.UserResponse;
 import sk.coderama.ai.entity.User;
 import sk.coderama.ai.exception.DuplicateResourceException;
+import sk.coderama.ai.exception.TooManyRequestsException;
 import sk.coderama.ai.exception.UnauthorizedException;
 import sk.coderama.ai.repository.UserRepository;
 import sk.coderama.ai.security.JwtTokenProvider;
+import sk.coderama.ai.security.UserPrincipal;
 import sk.coderama.ai.service.AuthService;
+import sk.coderama.ai.service.TokenRevocationService;
 
 @Service
 @RequiredArgsConstructor
@@ -27,11 +32,13 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
+    private final RegisteredEmails registeredEmails;
 
     @Override
     @Transactional
     public UserResponse register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (registeredEmails.isTaken(request.getEmail())) {
             throw new DuplicateResourceException("User", "email", request.getEmail());
         }
 
@@ -41,7 +48,15 @@ public class AuthServiceImpl implements AuthService {
                 .password(passwordEncoder.encode(request.getPassword()))
                 .build();
 
-        User savedUser = userRepository.save(user);
+        // One INSERT; the unique email indexes decide, so concurrent sign-ups cannot both pass a check
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            registeredEmails.markTaken(request.getEmail());
+            throw new DuplicateResourceException("User", "email", request.getEmail());
+        }
+        registeredEmails.markTakenOnCommit(request.getEmail());
 
         return UserResponse.builder()
                 .id(savedUser.getId())
@@ -62,21 +77,58 @@ public class AuthServiceImpl implements AuthService {
                     )
             );
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtTokenProvider.generateToken(userDetails);
-
-            User user = userRepository.findByEmail(request.getEmail())
-                    .orElseThrow(() -> new UnauthorizedException("Invalid credentials"));
-
-            return JwtResponse.builder()
-                    .token(token)
-                    .type("Bearer")
-                    .userId(user.getId())
-                    .email(user.getEmail())
-                    .build();
+            UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+            return issueTokens(principal);
 
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             throw new UnauthorizedException("Invalid credentials");
         }
     }
+
+    @Override
+    public JwtResponse refresh(RefreshTokenRequest request) {
+        Claims claims = jwtTokenProvider.parseToken(request.getRefreshToken());
+        if (claims == null || !JwtTokenProvider.isRefreshToken(claims) || claims.getId() == null) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+
+        // Rotation: a refresh token is good for exactly one refresh, and logout revokes it too
+        if (!tokenRevocationService.revoke(claims.getId(), claims.getExpiration())) {
+            throw new UnauthorizedException("Refresh token has been revoked");
+        }
+
+        Long userId = JwtTokenProvider.getUserId(claims);
+        User user = userId != null ? userRepository.findById(userId).orElse(null) : null;
+        if (user == null) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+
+        return issueTokens(new UserPrincipal(user.getId(), user.getEmail(), null));
+    }
+
+    @Override
+    public void logout(RefreshTokenRequest request, String accessToken) {
+        Claims refreshClaims = jwtTokenProvider.parseToken(request.getRefreshToken());
+        if (refreshClaims != null && JwtTokenProvider.isRefreshToken(refreshClaims) && refreshClaims.getId() != null) {
+            tokenRevocationService.revoke(refreshClaims.getId(), refreshClaims.getExpiration());
+        }
+
+        Claims accessClaims = accessToken != null ? jwtTokenProvider.parseToken(accessToken) : null;
+        if (accessClaims != null && !JwtTokenProvider.isRefreshToken(accessClaims) && accessClaims.getId() != null) {
+            tokenRevocationService.revoke(accessClaims.getId(), accessClaims.getExpiration());
+        }
+    }
+
+    private JwtResponse issueTokens(UserPrincipal principal) {
+        return JwtResponse.builder()
+                .token(jwtTokenProvider.generateToken(principal))
+                .refreshToken(jwtTokenProvider.generateRefreshToken(principal))
+                .type("Bearer")
+                .expiresIn(jwtTokenProvider.getExpiration() / 1000)
+                .userId(principal.getId())
+                .email(principal.getEmail())
+                .build();
+    }
 }
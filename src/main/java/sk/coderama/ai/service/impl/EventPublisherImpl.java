@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 import sk.coderama.ai.event.OrderCompletedEvent;
 import sk.coderama.ai.event.OrderCreatedEvent;
 import sk.coderama.ai.event.OrderExpiredEvent;
+import sk.coderama.ai.event.ProductChangedEvent;
+import sk.coderama.ai.metrics.EventMetrics;
 import sk.coderama.ai.service.EventPublisher;
 
 @Slf4j
@@ -15,25 +17,37 @@ import sk.coderama.ai.service.EventPublisher;
 public class EventPublisherImpl implements EventPublisher {
 
     private final StreamBridge streamBridge;
+    private final EventMetrics eventMetrics;
 
     @Override
     public void publishOrderCreated(OrderCreatedEvent event) {
         log.info("Publishing OrderCreatedEvent for order {}, eventId: {}",
                 event.getOrderId(), event.getEventId());
-        streamBridge.send("orderCreated-out-0", event);
+        send("orderCreated", event);
     }
 
     @Override
     public void publishOrderCompleted(OrderCompletedEvent event) {
         log.info("Publishing OrderCompletedEvent for order {}, eventId: {}",
                 event.getOrderId(), event.getEventId());
-        streamBridge.send("orderCompleted-out-0", event);
+        send("orderCompleted", event);
     }
 
     @Override
     public void publishOrderExpired(OrderExpiredEvent event) {
         log.info("Publishing OrderExpiredEvent for order {}, eventId: {}",
                 event.getOrderId(), event.getEventId());
-        streamBridge.send("orderExpired-out-0", event);
+        send("orderExpired", event);
+    }
+
+    @Override
+    public void publishProductChanged(ProductChangedEvent event) {
+        log.info("Publishing ProductChangedEvent for product {} ({}), eventId: {}",
+                event.getProductId(), event.getChangeType(), event.getEventId());
+        send("productChanged", event);
+    }
+
+    private void send(String binding, Object event) {
+        eventMetrics.timedSend(binding, () -> streamBridge.send(binding + "-out-0", event));
     }
 }
@@ -0,0 +1,17 @@
+package sk.coderama.ai.service.impl;
+
+/**
+ * LIKE patterns for user input; repository queries declare {@code escape '\'}.
+ */
+final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    /**
+     * Pattern matching values that start with {@code value}, with its wildcards taken literally.
+     */
+    static String prefix(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,147 @@
+package sk.coderama.ai.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sk.coderama.ai.entity.Notification;
+import sk.coderama.ai.entity.NotificationChannel;
+import sk.coderama.ai.entity.NotificationStatus;
+import sk.coderama.ai.notification.NotificationSender;
+import sk.coderama.ai.notification.NotificationTemplateRegistry;
+import sk.coderama.ai.repository.NotificationRepository;
+import sk.coderama.ai.service.NotificationDeliveryService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers PENDING notifications through the channel senders. Each batch is claimed in a short
+ * transaction (FOR UPDATE SKIP LOCKED, then attempts + 1 and a lease on next_attempt_at), sent
+ * without holding any locks, and its outcome written back in a second transaction. Failed
+ * attempts are retried with exponential backoff until max-attempts, after which the row is FAILED.
+ */
+@Slf4j
+@Service
+public class NotificationDeliveryServiceImpl implements NotificationDeliveryService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationTemplateRegistry templateRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<NotificationChannel, NotificationSender> senders = new EnumMap<>(NotificationChannel.class);
+
+    @Value("${notification.delivery.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notification.delivery.lease:5m}")
+    private Duration lease;
+
+    @Value("${notification.delivery.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification.delivery.backoff-initial:10s}")
+    private Duration backoffInitial;
+
+    @Value("${notification.delivery.backoff-max:1h}")
+    private Duration backoffMax;
+
+    public NotificationDeliveryServiceImpl(
+            NotificationRepository notificationRepository,
+            NotificationTemplateRegistry templateRegistry,
+            TransactionTemplate transactionTemplate,
+            List<NotificationSender> senders
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.templateRegistry = templateRegistry;
+        this.transactionTemplate = transactionTemplate;
+        for (NotificationSender sender : senders) {
+            this.senders.put(sender.getChannel(), sender);
+        }
+    }
+
+    @Override
+    public int deliverDueNotifications() {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = deliverBatch();
+            total += claimed;
+        } while (claimed == batchSize);
+
+        if (total > 0) {
+            log.info("Processed {} due notifications", total);
+        }
+        return total;
+    }
+
+    private int deliverBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> batch = transactionTemplate.execute(status -> {
+            List<Notification> due = notificationRepository.findDueForDelivery(now, Limit.of(batchSize));
+            if (!due.isEmpty()) {
+                notificationRepository.claim(due.stream().map(Notification::getId).toList(), now.plus(lease));
+            }
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> sent = new ArrayList<>(batch.size());
+        List<Runnable> failures = new ArrayList<>();
+        for (Notification notification : batch) {
+            // attempts was read before the claim incremented it
+            int attempt = notification.getAttempts() + 1;
+            try {
+                NotificationSender sender = senders.get(notification.getNotificationChannel());
+                if (sender == null) {
+                    throw new IllegalStateException("No sender for channel " + notification.getNotificationChannel());
+                }
+                sender.send(notification, templateRegistry.render(notification));
+                sent.add(notification.getId());
+            } catch (Exception e) {
+                failures.add(() -> recordFailure(notification.getId(), attempt, now, e));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                notificationRepository.markSent(sent);
+            }
+            failures.forEach(Runnable::run);
+        });
+        return batch.size();
+    }
+
+    private void recordFailure(Long id, int attempt, LocalDateTime now, Exception e) {
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        if (attempt >= maxAttempts) {
+            log.error("Notification {} failed permanently after {} attempts: {}", id, attempt, error);
+            notificationRepository.markAttemptFailed(id, NotificationStatus.FAILED, null, error);
+            return;
+        }
+
+        LocalDateTime nextAttemptAt = now.plus(backoff(attempt));
+        log.warn("Notification {} attempt {} failed, retrying at {}: {}", id, attempt, nextAttemptAt, error);
+        notificationRepository.markAttemptFailed(id, NotificationStatus.PENDING, nextAttemptAt, error);
+    }
+
+    /** initial * 2^(attempt - 1), capped at backoff-max, minus up to 20% jitter so retries spread out. */
+    private Duration backoff(int attempt) {
+        double delay = Math.min(backoffMax.toMillis(), backoffInitial.toMillis() * Math.pow(2, attempt - 1));
+        double jitter = delay * 0.2 * ThreadLocalRandom.current().nextDouble();
+        return Duration.ofMillis((long) (delay - jitter));
+    }
+}
@@ -0,0 +1,156 @@
+package sk.coderama.ai.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import sk.coderama.ai.service.NotificationPartitionService;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Maintains the monthly range partitions of the PostgreSQL notifications table: creates
+ * partitions ahead of time, since there is no default partition to catch inserts for a missing
+ * month, and detaches or drops months that fall out of the retention window.
+ * <p>
+ * Months are detached with {@code DETACH PARTITION ... CONCURRENTLY}, which only blocks other DDL
+ * on notifications, under {@code notification.partitioning.lock-timeout} so the job gives up
+ * instead of queueing behind long queries. A detach interrupted half way is finalized on the next
+ * run. The digest rows of a retired month go with it: moved to {@code <partition>_digest_orders}
+ * next to a detached partition, deleted with a dropped one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "notification.partitioning.enabled", havingValue = "true")
+public class NotificationPartitionServiceImpl implements NotificationPartitionService {
+
+    public enum RetentionAction {
+        DETACH,
+        DROP
+    }
+
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notification.partitioning.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${notification.partitioning.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${notification.partitioning.retention-action:DETACH}")
+    private RetentionAction retentionAction;
+
+    @Value("${notification.partitioning.lock-timeout:5s}")
+    private Duration lockTimeout;
+
+    @Override
+    public void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = partitionName(month);
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF notifications FOR VALUES FROM ('%s') TO ('%s')",
+                        partition, month.atDay(1), month.plusMonths(1).atDay(1)));
+            } catch (DataAccessException e) {
+                log.error("Could not create notification partition {}", partition, e);
+            }
+        }
+        log.debug("Notification partitions ensured through {}", current.plusMonths(premakeMonths));
+    }
+
+    @Override
+    public void applyRetention() {
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+
+        for (MonthlyPartition partition : findMonthlyPartitions()) {
+            YearMonth month = parseMonth(partition.name());
+            if (month == null || !month.isBefore(oldestKept)) {
+                continue;
+            }
+            try {
+                retire(partition);
+            } catch (DataAccessException e) {
+                // Usually the lock timeout; the next run tries again
+                log.warn("Could not retire notification partition {}: {}", partition.name(), e.getMessage());
+                continue;
+            }
+            log.info("{} notification partition {} (older than {})",
+                    retentionAction == RetentionAction.DROP ? "Dropped" : "Detached", partition.name(), oldestKept);
+        }
+    }
+
+    private void retire(MonthlyPartition partition) {
+        String name = partition.name();
+        // Nothing new refers to a month this old, so the digest rows can be dealt with before it goes
+        if (retentionAction == RetentionAction.DROP) {
+            jdbcTemplate.update("DELETE FROM notification_digest_orders WHERE notification_id IN (SELECT id FROM "
+                    + name + ")");
+        } else {
+            String archive = name + "_digest_orders";
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archive + " (LIKE notification_digest_orders)");
+            jdbcTemplate.update("WITH moved AS (DELETE FROM notification_digest_orders WHERE notification_id IN "
+                    + "(SELECT id FROM " + name + ") RETURNING *) INSERT INTO " + archive + " SELECT * FROM moved");
+        }
+
+        // CONCURRENTLY cannot run inside a transaction: this is an autocommit connection of its own
+        String detach = "ALTER TABLE notifications DETACH PARTITION " + name
+                + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY");
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET lock_timeout = " + lockTimeout.toMillis());
+                try {
+                    statement.execute(detach);
+                } finally {
+                    statement.execute("RESET lock_timeout");
+                }
+            }
+            return null;
+        });
+
+        if (retentionAction == RetentionAction.DROP) {
+            jdbcTemplate.execute("DROP TABLE " + name);
+        }
+    }
+
+    private List<MonthlyPartition> findMonthlyPartitions() {
+        return jdbcTemplate.query("""
+                SELECT c.relname, i.inhdetachpending
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'notifications'::regclass
+                  AND c.relname LIKE 'notifications\\_p%'
+                ORDER BY c.relname
+                """, (rs, rowNum) -> new MonthlyPartition(rs.getString(1), rs.getBoolean(2)));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private record MonthlyPartition(String name, boolean detachPending) {
+    }
+
+    private static YearMonth parseMonth(String partition) {
+        try {
+            return YearMonth.from(PARTITION_SUFFIX.parse(partition.substring(PARTITION_PREFIX.length())));
+        } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+}
@@ -2,23 +2,41 @@ package sk.coderama.ai.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sk.coderama.ai.dto.response.CursorPage;
+import sk.coderama.ai.dto.response.NotificationResponse;
 import sk.coderama.ai.entity.Notification;
 import sk.coderama.ai.entity.NotificationChannel;
 import sk.coderama.ai.entity.NotificationEventType;
 import sk.coderama.ai.entity.NotificationStatus;
+import sk.coderama.ai.entity.NotificationTemplate;
 import sk.coderama.ai.event.OrderCompletedEvent;
 import sk.coderama.ai.event.OrderExpiredEvent;
+import sk.coderama.ai.exception.BadRequestException;
+import sk.coderama.ai.exception.ResourceNotFoundException;
+import sk.coderama.ai.notification.NotificationTemplateRegistry;
 import sk.coderama.ai.repository.NotificationRepository;
+import sk.coderama.ai.repository.UserRepository;
 import sk.coderama.ai.service.NotificationService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final LocalDateTime FEED_START = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final NotificationTemplateRegistry templateRegistry;
 
     @Override
     public void sendOrderCompletedEmail(OrderCompletedEvent event) {
@@ -40,16 +58,13 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional
     public void saveOrderCompletedNotification(OrderCompletedEvent event) {
-        String message = String.format(
-            "Your order #%d has been successfully completed! Total: $%s. Payment Reference: %s",
-            event.getOrderId(), event.getTotal(), event.getPaymentReference()
-        );
-
         Notification notification = Notification.builder()
             .orderId(event.getOrderId())
             .userId(event.getUserId())
             .eventType(NotificationEventType.ORDER_COMPLETED)
-            .message(message)
+            .template(NotificationTemplate.ORDER_COMPLETED)
+            .templateParams(NotificationTemplateRegistry.encodeParams(
+                event.getTotal(), event.getPaymentReference()))
             .notificationChannel(NotificationChannel.EMAIL)
             .status(NotificationStatus.SENT)
             .build();
@@ -61,16 +76,13 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional
     public void saveOrderExpiredNotification(OrderExpiredEvent event) {
-        String message = String.format(
-            "Your order #%d has expired. Previous status: %s. Reason: %s",
-            event.getOrderId(), event.getPreviousStatus(), event.getReason()
-        );
-
         Notification notification = Notification.builder()
             .orderId(event.getOrderId())
             .userId(event.getUserId())
             .eventType(NotificationEventType.ORDER_EXPIRED)
-            .message(message)
+            .template(NotificationTemplate.ORDER_EXPIRED)
+            .templateParams(NotificationTemplateRegistry.encodeParams(
+                event.getPreviousStatus(), event.getReason()))
             .notificationChannel(NotificationChannel.EMAIL)
             .status(NotificationStatus.PENDING)
             .build();
@@ -78,4 +90,89 @@ public class NotificationServiceImpl implements NotificationService {
         notificationRepository.save(notification);
         log.info("Expiration notification saved to database for order {}", event.getOrderId());
     }
+
+    @Override
+    @Transactional
+    public void saveOrderExpiredDigest(Long userId, List<OrderExpiredEvent> events) {
+        if (events.size() == 1) {
+            saveOrderExpiredNotification(events.get(0));
+            return;
+        }
+
+        List<Long> orderIds = events.stream()
+            .map(OrderExpiredEvent::getOrderId)
+            .collect(Collectors.toList());
+        String reason = events.stream()
+            .map(OrderExpiredEvent::getReason)
+            .distinct()
+            .collect(Collectors.joining("; "));
+
+        Notification notification = Notification.builder()
+            .orderId(orderIds.get(0))
+            .userId(userId)
+            .eventType(NotificationEventType.ORDER_EXPIRED)
+            .template(NotificationTemplate.ORDER_EXPIRED_DIGEST)
+            .templateParams(NotificationTemplateRegistry.encodeParams(orderIds.size(), reason))
+            .digestOrderIds(new ArrayList<>(orderIds))
+            .notificationChannel(NotificationChannel.EMAIL)
+            .status(NotificationStatus.PENDING)
+            .build();
+
+        notificationRepository.save(notification);
+        log.info("Expiration digest saved to database for user {} covering {} orders", userId, orderIds.size());
+    }
+
+    @Override
+    public CursorPage<NotificationResponse> getUserNotifications(
+            Long userId,
+            NotificationStatus status,
+            NotificationEventType eventType,
+            String cursor,
+            int size
+    ) {
+        KeysetCursor.checkPageSize(size, MAX_PAGE_SIZE);
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+
+        LocalDateTime beforeCreatedAt = FEED_START;
+        Long beforeId = Long.MAX_VALUE;
+        if (cursor != null) {
+            String[] keys = KeysetCursor.decode(cursor, 2);
+            try {
+                beforeCreatedAt = LocalDateTime.parse(keys[0]);
+                beforeId = Long.parseLong(keys[1]);
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<Notification> rows = notificationRepository.findFeedPage(
+                userId, status, eventType, beforeCreatedAt, beforeId, Limit.of(size + 1));
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Notification last = rows.get(size - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt(), last.getId());
+        }
+
+        List<NotificationResponse> items = rows.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private NotificationResponse mapToResponse(Notification notification) {
+        return NotificationResponse.builder()
+                .id(notification.getId())
+                .orderId(notification.getOrderId())
+                .eventType(notification.getEventType())
+                .channel(notification.getNotificationChannel())
+                .status(notification.getStatus())
+                .message(templateRegistry.render(notification))
+                .createdAt(notification.getCreatedAt())
+                .build();
+    }
 }
@@ -0,0 +1,74 @@
+package sk.coderama.ai.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write in its own transaction and, when the version check fails at flush, runs it
+ * again on fresh data. Attempts are bounded; the last conflict is rethrown and surfaces as 409.
+ * The work must not be called inside an outer transaction, or the retry would reuse the stale state.
+ */
+@Slf4j
+@Component
+class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter retried;
+    private final Counter exhausted;
+
+    @Value("${optimistic-retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${optimistic-retry.backoff:10ms}")
+    private Duration backoff;
+
+    OptimisticRetry(TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.transactionTemplate = transactionTemplate;
+        this.retried = Counter.builder("optimistic.lock.conflicts")
+                .tag("outcome", "retried")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("optimistic.lock.conflicts")
+                .tag("outcome", "exhausted")
+                .register(meterRegistry);
+    }
+
+    <T> T execute(String operation, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("{} still conflicting after {} attempts", operation, attempt);
+                    throw e;
+                }
+                retried.increment();
+                log.debug("{} hit a concurrent update, retrying (attempt {})", operation, attempt);
+                pause(operation, attempt);
+            }
+        }
+    }
+
+    // Linear backoff with full jitter, so writers that collided once do not collide again in lockstep
+    private void pause(String operation, int attempt) {
+        long maxNanos = backoff.toNanos() * attempt;
+        if (maxNanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(maxNanos)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry " + operation, e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import sk.coderama.ai.entity.Order;
 import sk.coderama.ai.entity.OrderStatus;
 import sk.coderama.ai.event.OrderEvent;
 import sk.coderama.ai.event.OrderExpiredEvent;
+import sk.coderama.ai.metrics.OrderMetrics;
 import sk.coderama.ai.repository.OrderRepository;
 import sk.coderama.ai.service.EventPublisher;
 import sk.coderama.ai.service.OrderExpirationService;
@@ -22,6 +23,7 @@ public class OrderExpirationServiceImpl implements OrderExpirationService {
 
     private final OrderRepository orderRepository;
     private final EventPublisher eventPublisher;
+    private final OrderMetrics orderMetrics;
 
     private static final int EXPIRATION_MINUTES = 10;
 
@@ -40,15 +42,26 @@ public class OrderExpirationServiceImpl implements OrderExpirationService {
 
         if (ordersToExpire.isEmpty()) {
             log.debug("No orders to expire");
+            orderMetrics.recordExpirationRun(0);
             return;
         }
 
         log.info("Found {} orders to expire", ordersToExpire.size());
 
+        int expired = 0;
         for (Order order : ordersToExpire) {
             OrderStatus previousStatus = order.getStatus();
-            order.setStatus(OrderStatus.EXPIRED);
-            orderRepository.save(order);
+            LocalDateTime expiredAt = LocalDateTime.now();
+            // Conditional on the status just read, so an order completed in the meantime is left alone
+            if (orderRepository.transitionStatus(order.getId(), List.of(previousStatus),
+                    OrderStatus.EXPIRED, expiredAt) == 0) {
+                log.info("Order {} left {} before it could expire, skipping", order.getId(), previousStatus);
+                continue;
+            }
+            expired++;
+            // updatedAt is when the order entered its current status, unless it was edited since
+            orderMetrics.recordTransition(previousStatus, OrderStatus.EXPIRED, order.getUpdatedAt(), expiredAt);
+            orderMetrics.recordCompletion(OrderStatus.EXPIRED, order.getCreatedAt(), expiredAt);
 
             log.info("Order {} expired (previous status: {}, created at: {})",
                     order.getId(), previousStatus, order.getCreatedAt());
@@ -67,6 +80,7 @@ public class OrderExpirationServiceImpl implements OrderExpirationService {
             eventPublisher.publishOrderExpired(expiredEvent);
         }
 
-        log.info("Expired {} orders", ordersToExpire.size());
+        orderMetrics.recordExpirationRun(expired);
+        log.info("Expired {} orders", expired);
     }
 }
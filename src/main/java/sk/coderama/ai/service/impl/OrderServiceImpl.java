@@ -16,6 +16,7 @@ import sk.coderama.ai.entity.Product;
 import sk.coderama.ai.event.OrderCreatedEvent;
 import sk.coderama.ai.event.OrderEvent;
 import sk.coderama.ai.event.internal.OrderCreatedInternalEvent;
+import sk.coderama.ai.exception.ConflictException;
 import sk.coderama.ai.exception.ResourceNotFoundException;
 import sk.coderama.ai.repository.OrderRepository;
 import sk.coderama.ai.repository.ProductRepository;
@@ -37,15 +38,18 @@ public class OrderServiceImpl implements OrderService {
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final OptimisticRetry optimisticRetry;
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderResponse> getAllOrders() {
         return orderRepository.findAll().stream()
-                .map(this::mapToResponse)
+                .map(OrderServiceImpl::mapToResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
@@ -89,11 +93,7 @@ public class OrderServiceImpl implements OrderService {
             order.getItems().add(orderItem);
         }
 
-        // Calculate total from items
-        BigDecimal calculatedTotal = order.getItems().stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        order.setTotal(calculatedTotal);
+        order.setTotal(calculateTotal(order.getItems()));
 
         Order savedOrder = orderRepository.save(order);
 
@@ -124,11 +124,18 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Transactional
     public OrderResponse updateOrder(Long id, UpdateOrderRequest request) {
+        return optimisticRetry.execute("Update of order " + id, () -> applyUpdate(id, request));
+    }
+
+    private OrderResponse applyUpdate(Long id, UpdateOrderRequest request) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
 
+        if (request.getVersion() != null && !request.getVersion().equals(order.getVersion())) {
+            throw new ConflictException("Order " + id + " was modified since version " + request.getVersion());
+        }
+
         if (request.getStatus() != null) {
             order.setStatus(request.getStatus());
         }
@@ -143,6 +150,8 @@ public class OrderServiceImpl implements OrderService {
 
             // Clear existing items and add new ones
             order.getItems().clear();
+            // Items are owned by the order_items side, so touch the order itself to bump its version
+            order.setUpdatedAt(LocalDateTime.now());
 
             for (OrderItemRequest itemRequest : request.getItems()) {
                 OrderItem orderItem = OrderItem.builder()
@@ -155,16 +164,13 @@ public class OrderServiceImpl implements OrderService {
                 order.getItems().add(orderItem);
             }
 
-            // Recalculate total
-            BigDecimal calculatedTotal = order.getItems().stream()
-                    .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            order.setTotal(calculatedTotal);
+            order.setTotal(calculateTotal(order.getItems()));
         } else if (request.getTotal() != null) {
             order.setTotal(request.getTotal());
         }
 
-        Order updatedOrder = orderRepository.save(order);
+        // Flush so the version check runs inside this attempt and the response carries the new version
+        Order updatedOrder = orderRepository.saveAndFlush(order);
         return mapToResponse(updatedOrder);
     }
 
@@ -177,18 +183,26 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByUserId(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User", "id", userId);
         }
         return orderRepository.findByUserId(userId).stream()
-                .map(this::mapToResponse)
+                .map(OrderServiceImpl::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    private OrderResponse mapToResponse(Order order) {
+    // Package-private static so the JMH benchmarks in src/jmh/java can call them directly
+    static BigDecimal calculateTotal(List<OrderItem> items) {
+        return items.stream()
+                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    static OrderResponse mapToResponse(Order order) {
         List<OrderItemResponse> itemResponses = order.getItems().stream()
-                .map(this::mapItemToResponse)
+                .map(OrderServiceImpl::mapItemToResponse)
                 .collect(Collectors.toList());
 
         return OrderResponse.builder()
@@ -197,12 +211,13 @@ public class OrderServiceImpl implements OrderService {
                 .total(order.getTotal())
                 .status(order.getStatus())
                 .items(itemResponses)
+                .version(order.getVersion())
                 .createdAt(order.getCreatedAt())
                 .updatedAt(order.getUpdatedAt())
                 .build();
     }
 
-    private OrderItemResponse mapItemToResponse(OrderItem item) {
+    private static OrderItemResponse mapItemToResponse(OrderItem item) {
         return OrderItemResponse.builder()
                 .id(item.getId())
                 .orderId(item.getOrderId())
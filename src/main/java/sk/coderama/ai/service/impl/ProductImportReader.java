@@ -0,0 +1,200 @@
+package sk.coderama.ai.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import sk.coderama.ai.dto.request.ProductImportFormat;
+import sk.coderama.ai.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads product import rows one at a time from CSV (with a header line) or NDJSON, so memory use does not
+ * depend on the file size. Rows are numbered from 1, not counting the CSV header or blank NDJSON lines.
+ * Every row is validated on its own: a bad row carries an error instead of values and reading goes on.
+ * Only a CSV file that cannot be parsed at all fails the whole import.
+ */
+final class ProductImportReader implements Closeable {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "price", "stock");
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final MappingIterator<Map<String, String>> csvRows;
+    private final BufferedReader jsonLines;
+    private final ObjectReader jsonReader;
+    private long rowNo;
+
+    private ProductImportReader(
+            MappingIterator<Map<String, String>> csvRows,
+            BufferedReader jsonLines,
+            ObjectReader jsonReader
+    ) {
+        this.csvRows = csvRows;
+        this.jsonLines = jsonLines;
+        this.jsonReader = jsonReader;
+    }
+
+    static ProductImportReader open(InputStream input, ProductImportFormat format, ObjectMapper objectMapper)
+            throws IOException {
+        if (format == ProductImportFormat.CSV) {
+            MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(input);
+            return new ProductImportReader(rows, null, null);
+        }
+        BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ObjectReader reader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        return new ProductImportReader(null, lines, reader);
+    }
+
+    /**
+     * The next row, or null at the end of the input.
+     */
+    Row next() throws IOException {
+        return csvRows != null ? nextCsvRow() : nextJsonRow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (csvRows != null) {
+            csvRows.close();
+        } else {
+            jsonLines.close();
+        }
+    }
+
+    private Row nextCsvRow() throws IOException {
+        Map<String, String> values;
+        try {
+            if (!csvRows.hasNextValue()) {
+                return null;
+            }
+            values = csvRows.nextValue();
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed CSV after row " + rowNo + ": " + e.getOriginalMessage());
+        }
+        rowNo++;
+        if (rowNo == 1) {
+            CsvSchema header = (CsvSchema) csvRows.getParserSchema();
+            for (String column : REQUIRED_COLUMNS) {
+                if (header.column(column) == null) {
+                    throw new BadRequestException("CSV header must contain the columns " + REQUIRED_COLUMNS);
+                }
+            }
+        }
+        return validate(rowNo, values.get("id"), values.get("name"), values.get("description"),
+                values.get("price"), values.get("stock"));
+    }
+
+    private Row nextJsonRow() throws IOException {
+        String line;
+        do {
+            line = jsonLines.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        rowNo++;
+
+        JsonNode node;
+        try {
+            node = jsonReader.readTree(line);
+        } catch (JsonProcessingException e) {
+            return Row.rejected(rowNo, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return Row.rejected(rowNo, "Expected a JSON object");
+        }
+        return validate(rowNo, text(node, "id"), text(node, "name"), text(node, "description"),
+                text(node, "price"), text(node, "stock"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Row validate(long rowNo, String id, String name, String description, String price, String stock) {
+        Long productId = null;
+        if (!isBlank(id)) {
+            try {
+                productId = Long.parseLong(id.strip());
+            } catch (NumberFormatException e) {
+                return Row.rejected(rowNo, "Invalid id: " + id);
+            }
+            if (productId <= 0) {
+                return Row.rejected(rowNo, "Invalid id: " + id);
+            }
+        }
+
+        if (isBlank(name)) {
+            return Row.rejected(rowNo, "Product name is required");
+        }
+        name = name.strip();
+        if (name.length() > MAX_NAME_LENGTH) {
+            return Row.rejected(rowNo, "Product name must not exceed " + MAX_NAME_LENGTH + " characters");
+        }
+
+        if (isBlank(price)) {
+            return Row.rejected(rowNo, "Price is required");
+        }
+        BigDecimal parsedPrice;
+        try {
+            parsedPrice = new BigDecimal(price.strip());
+        } catch (NumberFormatException e) {
+            return Row.rejected(rowNo, "Invalid price: " + price);
+        }
+        if (parsedPrice.signum() < 0 || parsedPrice.compareTo(MAX_PRICE) > 0 || parsedPrice.scale() > 2) {
+            return Row.rejected(rowNo, "Price must be between 0 and " + MAX_PRICE + " with at most 2 decimals");
+        }
+
+        if (isBlank(stock)) {
+            return Row.rejected(rowNo, "Stock is required");
+        }
+        int parsedStock;
+        try {
+            parsedStock = Integer.parseInt(stock.strip());
+        } catch (NumberFormatException e) {
+            return Row.rejected(rowNo, "Invalid stock: " + stock);
+        }
+        if (parsedStock < 0) {
+            return Row.rejected(rowNo, "Stock must be greater than or equal to 0");
+        }
+
+        return new Row(rowNo, productId, name, isBlank(description) ? null : description, parsedPrice,
+                parsedStock, null);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    record Row(
+            long rowNo,
+            Long productId,
+            String name,
+            String description,
+            BigDecimal price,
+            Integer stock,
+            String error
+    ) {
+        static Row rejected(long rowNo, String error) {
+            return new Row(rowNo, null, null, null, null, null, error);
+        }
+    }
+}
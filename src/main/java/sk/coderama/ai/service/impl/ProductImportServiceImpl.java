@@ -0,0 +1,323 @@
+package sk.coderama.ai.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sk.coderama.ai.catalog.ProductCatalog;
+import sk.coderama.ai.dto.request.ProductImportFormat;
+import sk.coderama.ai.dto.response.ProductImportResponse;
+import sk.coderama.ai.event.ProductChangedEvent;
+import sk.coderama.ai.event.internal.ProductChangedInternalEvent;
+import sk.coderama.ai.service.ProductImportService;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Bulk product import. Valid rows are streamed into product_import_rows (COPY on PostgreSQL, JDBC batches
+ * elsewhere) and applied with one MERGE: rows with an id update that product, rows without one are inserted.
+ * Rows naming an unknown product, and all but the last row for the same product, are rejected. Everything
+ * runs in one transaction, so an import is applied completely or not at all.
+ */
+@Slf4j
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String MERGE_SQL = """
+            MERGE INTO products p
+            USING (SELECT product_id, name, description, price, stock
+                   FROM (SELECT r.*, ROW_NUMBER() OVER (PARTITION BY r.product_id ORDER BY r.row_no DESC) AS rn
+                         FROM product_import_rows r
+                         WHERE r.import_id = ?) ranked
+                   WHERE ranked.product_id IS NULL OR ranked.rn = 1) s
+            ON p.id = s.product_id
+            WHEN MATCHED THEN
+                UPDATE SET name = s.name, description = s.description, price = s.price, stock = s.stock,
+                           version = p.version + 1, updated_at = ?
+            WHEN NOT MATCHED AND s.product_id IS NULL THEN
+                INSERT (name, description, price, stock, created_at, updated_at)
+                VALUES (s.name, s.description, s.price, s.stock, ?, ?)
+            """;
+
+    private static final String REJECTED_ROWS_SQL = """
+            SELECT row_no, product_id, found
+            FROM (SELECT r.row_no, r.product_id, p.id AS found,
+                         ROW_NUMBER() OVER (PARTITION BY r.product_id ORDER BY r.row_no DESC) AS rn
+                  FROM product_import_rows r
+                  LEFT JOIN products p ON p.id = r.product_id
+                  WHERE r.import_id = ? AND r.product_id IS NOT NULL) ids
+            WHERE found IS NULL OR rn > 1
+            ORDER BY row_no
+            """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductCatalog productCatalog;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${product.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public ProductImportServiceImpl(
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            ProductCatalog productCatalog,
+            ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.productCatalog = productCatalog;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public ProductImportResponse importProducts(InputStream input, ProductImportFormat format) {
+        String importId = UUID.randomUUID().toString();
+        ErrorReport report = new ErrorReport(maxReportedErrors);
+        long received = 0;
+        long staged = 0;
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (ProductImportReader reader = ProductImportReader.open(input, format, objectMapper);
+             StagingWriter writer = openStagingWriter(connection, importId)) {
+            ProductImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                received++;
+                if (row.error() != null) {
+                    report.add(row.rowNo(), row.error());
+                } else {
+                    writer.write(row);
+                    staged++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading product import", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error staging product import", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        jdbcTemplate.query(REJECTED_ROWS_SQL, rs -> {
+            long productId = rs.getLong("product_id");
+            report.add(rs.getLong("row_no"), rs.getObject("found") == null
+                    ? "Product " + productId + " not found"
+                    : "Product " + productId + " appears again in a later row, which wins");
+        }, importId);
+
+        Long updated = jdbcTemplate.queryForObject("""
+                SELECT COUNT(DISTINCT r.product_id)
+                FROM product_import_rows r
+                JOIN products p ON p.id = r.product_id
+                WHERE r.import_id = ?
+                """, Long.class, importId);
+        LocalDateTime now = LocalDateTime.now();
+        long merged = staged == 0 ? 0 : jdbcTemplate.update(MERGE_SQL, importId, now, now, now);
+        jdbcTemplate.update("DELETE FROM product_import_rows WHERE import_id = ?", importId);
+
+        long inserted = merged - updated;
+        log.info("Product import {}: {} rows received, {} inserted, {} updated, {} rejected",
+                importId, received, inserted, updated, report.count);
+        if (merged > 0) {
+            applicationEventPublisher.publishEvent(new ProductChangedInternalEvent(this, ProductChangedEvent.builder()
+                    .eventId(UUID.randomUUID().toString())
+                    .changeType(ProductChangedEvent.ChangeType.IMPORTED)
+                    .originNodeId(productCatalog.getNodeId())
+                    .timestamp(Instant.now())
+                    .build()));
+        }
+
+        return ProductImportResponse.builder()
+                .received(received)
+                .inserted(inserted)
+                .updated(updated)
+                .rejected(report.count)
+                .errors(report.sorted())
+                .errorsTruncated(report.count > report.errors.size())
+                .build();
+    }
+
+    private StagingWriter openStagingWriter(Connection connection, String importId) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn("""
+                    COPY product_import_rows (import_id, row_no, product_id, name, description, price, stock)
+                    FROM STDIN WITH (FORMAT csv)
+                    """);
+            return new CopyStagingWriter(copyIn, importId);
+        }
+        return new BatchStagingWriter(connection.prepareStatement("""
+                INSERT INTO product_import_rows (import_id, row_no, product_id, name, description, price, stock)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """), importId);
+    }
+
+    private interface StagingWriter extends AutoCloseable {
+
+        void write(ProductImportReader.Row row) throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    /**
+     * Streams rows to COPY in CSV format through a fixed-size buffer.
+     */
+    private static final class CopyStagingWriter implements StagingWriter {
+
+        private final CopyIn copyIn;
+        private final String importId;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_SIZE);
+        private final StringBuilder line = new StringBuilder();
+
+        CopyStagingWriter(CopyIn copyIn, String importId) {
+            this.copyIn = copyIn;
+            this.importId = importId;
+        }
+
+        @Override
+        public void write(ProductImportReader.Row row) throws SQLException {
+            line.setLength(0);
+            line.append(importId).append(',')
+                    .append(row.rowNo()).append(',')
+                    .append(row.productId() == null ? "" : row.productId()).append(',');
+            appendQuoted(row.name());
+            line.append(',');
+            if (row.description() != null) {
+                appendQuoted(row.description());
+            }
+            line.append(',').append(row.price().toPlainString())
+                    .append(',').append(row.stock())
+                    .append('\n');
+
+            buffer.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+            if (buffer.size() >= COPY_BUFFER_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!copyIn.isActive()) {
+                return;
+            }
+            try {
+                flush();
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+
+        // Quoted values are never NULL in COPY CSV, so an empty description stays distinguishable
+        private void appendQuoted(String value) {
+            line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.size() > 0) {
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                buffer.reset();
+            }
+        }
+    }
+
+    private static final class BatchStagingWriter implements StagingWriter {
+
+        private final PreparedStatement statement;
+        private final String importId;
+        private int pending;
+
+        BatchStagingWriter(PreparedStatement statement, String importId) {
+            this.statement = statement;
+            this.importId = importId;
+        }
+
+        @Override
+        public void write(ProductImportReader.Row row) throws SQLException {
+            statement.setString(1, importId);
+            statement.setLong(2, row.rowNo());
+            statement.setObject(3, row.productId());
+            statement.setString(4, row.name());
+            statement.setString(5, row.description());
+            statement.setBigDecimal(6, row.price());
+            statement.setInt(7, row.stock());
+            statement.addBatch();
+            if (++pending == BATCH_SIZE) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            } finally {
+                statement.close();
+            }
+        }
+    }
+
+    /**
+     * Counts every rejected row but keeps only the {@code limit} with the lowest row numbers.
+     */
+    private static final class ErrorReport {
+
+        private static final Comparator<ProductImportResponse.RowError> BY_ROW =
+                Comparator.comparingLong(ProductImportResponse.RowError::getRow);
+
+        private final int limit;
+        private final PriorityQueue<ProductImportResponse.RowError> errors = new PriorityQueue<>(BY_ROW.reversed());
+        private long count;
+
+        ErrorReport(int limit) {
+            this.limit = limit;
+        }
+
+        void add(long row, String message) {
+            count++;
+            errors.add(new ProductImportResponse.RowError(row, message));
+            if (errors.size() > limit) {
+                errors.poll();
+            }
+        }
+
+        List<ProductImportResponse.RowError> sorted() {
+            List<ProductImportResponse.RowError> sorted = new ArrayList<>(errors);
+            sorted.sort(BY_ROW);
+            return sorted;
+        }
+    }
+}
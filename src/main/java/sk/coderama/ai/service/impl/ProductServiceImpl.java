@@ -1,33 +1,173 @@
 package sk.coderama.ai.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sk.coderama.ai.catalog.ProductCatalog;
+import sk.coderama.ai.catalog.ProductSearchIndex;
 import sk.coderama.ai.dto.request.CreateProductRequest;
+import sk.coderama.ai.dto.request.ProductSort;
 import sk.coderama.ai.dto.request.UpdateProductRequest;
+import sk.coderama.ai.dto.response.CursorPage;
 import sk.coderama.ai.dto.response.ProductResponse;
 import sk.coderama.ai.entity.Product;
+import sk.coderama.ai.event.ProductChangedEvent;
+import sk.coderama.ai.event.internal.ProductChangedInternalEvent;
+import sk.coderama.ai.exception.BadRequestException;
+import sk.coderama.ai.exception.ConflictException;
 import sk.coderama.ai.exception.ResourceNotFoundException;
+import sk.coderama.ai.replica.ReplicaRouter;
 import sk.coderama.ai.repository.ProductRepository;
+import sk.coderama.ai.repository.ProductSearchHit;
 import sk.coderama.ai.service.ProductService;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_TERMS = 10;
+
     private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final OptimisticRetry optimisticRetry;
+
+    @Value("${product.search.mode:database}")
+    private SearchMode searchMode;
+
+    // Search index over the catalog list it was built from; rebuilt once that snapshot is replaced
+    private volatile IndexedCatalog indexedCatalog;
 
     @Override
     public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll().stream()
+        return productCatalog.get(this::loadCatalog);
+    }
+
+    @Override
+    public void refreshCatalog() {
+        productCatalog.refresh(this::loadCatalog);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> getProducts(
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            boolean inStock,
+            String namePrefix,
+            ProductSort sort,
+            String cursor,
+            int size
+    ) {
+        KeysetCursor.checkPageSize(size, MAX_PAGE_SIZE);
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+        String namePattern = namePrefix == null || namePrefix.isBlank()
+                ? null
+                : LikePatterns.prefix(namePrefix.strip().toLowerCase(Locale.ROOT));
+
+        // The cursor carries its sort order, so it cannot be replayed against a different one
+        Long cursorId = null;
+        BigDecimal cursorPrice = null;
+        String cursorName = null;
+        if (cursor != null) {
+            String[] keys = KeysetCursor.decode(cursor, 3);
+            if (!keys[0].equals(sort.name())) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            try {
+                cursorId = Long.parseLong(keys[1]);
+                if (sort == ProductSort.PRICE_ASC || sort == ProductSort.PRICE_DESC) {
+                    cursorPrice = new BigDecimal(keys[2]);
+                }
+                cursorName = keys[2];
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        Limit limit = Limit.of(size + 1);
+        List<Product> rows = switch (sort) {
+            case ID -> productRepository.findListingPageById(
+                    minPrice, maxPrice, inStock, namePattern, cursorId, limit);
+            case PRICE_ASC -> productRepository.findListingPageByPriceAsc(
+                    minPrice, maxPrice, inStock, namePattern, cursorPrice, cursorId, limit);
+            case PRICE_DESC -> productRepository.findListingPageByPriceDesc(
+                    minPrice, maxPrice, inStock, namePattern, cursorPrice, cursorId, limit);
+            case NAME_ASC -> productRepository.findListingPageByNameAsc(
+                    minPrice, maxPrice, inStock, namePattern, cursorName, cursorId, limit);
+            case NAME_DESC -> productRepository.findListingPageByNameDesc(
+                    minPrice, maxPrice, inStock, namePattern, cursorName, cursorId, limit);
+        };
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Product last = rows.get(size - 1);
+            Object lastKey = switch (sort) {
+                case ID -> "";
+                case PRICE_ASC, PRICE_DESC -> last.getPrice().toPlainString();
+                case NAME_ASC, NAME_DESC -> last.getName();
+            };
+            // The name goes last: it may contain the cursor separator
+            nextCursor = KeysetCursor.encode(sort, last.getId(), lastKey);
+        }
+
+        List<ProductResponse> items = rows.stream()
                 .map(this::mapToResponse)
-                .collect(Collectors.toList());
+                .toList();
+        return new CursorPage<>(items, nextCursor);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductResponse> searchProducts(String query, String cursor, int size) {
+        KeysetCursor.checkPageSize(size, MAX_PAGE_SIZE);
+        List<String> terms = ProductSearchIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new BadRequestException("Search query must contain at least one letter or digit");
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            throw new BadRequestException("Search query must not have more than " + MAX_QUERY_TERMS + " terms");
+        }
+
+        double beforeRank = Double.POSITIVE_INFINITY;
+        long afterId = 0;
+        if (cursor != null) {
+            String[] keys = KeysetCursor.decode(cursor, 2);
+            try {
+                beforeRank = Double.parseDouble(keys[0]);
+                afterId = Long.parseLong(keys[1]);
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        return searchMode == SearchMode.MEMORY
+                ? searchCatalog(terms, beforeRank, afterId, size)
+                : searchDatabase(terms, beforeRank, afterId, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public ProductResponse getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
@@ -45,15 +185,32 @@ public class ProductServiceImpl implements ProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        publishProductChanged(savedProduct.getId(), ProductChangedEvent.ChangeType.CREATED);
         return mapToResponse(savedProduct);
     }
 
     @Override
-    @Transactional
     public ProductResponse updateProduct(Long id, UpdateProductRequest request) {
+        return optimisticRetry.execute("Update of product " + id, () -> applyUpdate(id, request));
+    }
+
+    @Override
+    @Transactional
+    public void deleteProduct(Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        productRepository.delete(product);
+        publishProductChanged(id, ProductChangedEvent.ChangeType.DELETED);
+    }
+
+    private ProductResponse applyUpdate(Long id, UpdateProductRequest request) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
+        if (request.getVersion() != null && !request.getVersion().equals(product.getVersion())) {
+            throw new ConflictException("Product " + id + " was modified since version " + request.getVersion());
+        }
+
         if (request.getName() != null) {
             product.setName(request.getName());
         }
@@ -70,16 +227,79 @@ public class ProductServiceImpl implements ProductService {
             product.setStock(request.getStock());
         }
 
-        Product updatedProduct = productRepository.save(product);
+        // Flush so the version check runs inside this attempt and the response carries the new version
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        publishProductChanged(id, ProductChangedEvent.ChangeType.UPDATED);
         return mapToResponse(updatedProduct);
     }
 
-    @Override
-    @Transactional
-    public void deleteProduct(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-        productRepository.delete(product);
+    private CursorPage<ProductResponse> searchDatabase(List<String> terms, double beforeRank, long afterId, int size) {
+        // Every term is letters and digits only, so it is safe to use as a tsquery prefix lexeme
+        String tsQuery = terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+
+        // Fetch one extra row to learn whether another page exists
+        List<ProductSearchHit> hits = productRepository.searchPage(tsQuery, beforeRank, afterId, size + 1);
+        String nextCursor = null;
+        if (hits.size() > size) {
+            hits = hits.subList(0, size);
+            ProductSearchHit last = hits.get(size - 1);
+            nextCursor = KeysetCursor.encode(last.getRank(), last.getId());
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(hits.stream().map(ProductSearchHit::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductResponse> items = hits.stream()
+                .map(hit -> products.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .map(this::mapToResponse)
+                .toList();
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private CursorPage<ProductResponse> searchCatalog(List<String> terms, double beforeRank, long afterId, int size) {
+        List<ProductResponse> catalog = getAllProducts();
+        IndexedCatalog indexed = indexedCatalog;
+        if (indexed == null || indexed.catalog() != catalog) {
+            indexed = new IndexedCatalog(catalog, ProductSearchIndex.build(catalog));
+            indexedCatalog = indexed;
+        }
+
+        List<ProductSearchIndex.Hit> page = new ArrayList<>(size + 1);
+        for (ProductSearchIndex.Hit hit : indexed.index().search(terms)) {
+            if (hit.score() < beforeRank || (hit.score() == beforeRank && hit.product().getId() > afterId)) {
+                page.add(hit);
+                if (page.size() > size) {
+                    break;
+                }
+            }
+        }
+
+        String nextCursor = null;
+        if (page.size() > size) {
+            page = page.subList(0, size);
+            ProductSearchIndex.Hit last = page.get(size - 1);
+            nextCursor = KeysetCursor.encode(last.score(), last.product().getId());
+        }
+        return new CursorPage<>(page.stream().map(ProductSearchIndex.Hit::product).toList(), nextCursor);
+    }
+
+    // The snapshot is served to every user until the next change, so it is never built from a lagging replica
+    private List<ProductResponse> loadCatalog() {
+        return ReplicaRouter.onPrimary(() -> productRepository.findAll(Sort.by("id")).stream()
+                .map(this::mapToResponse)
+                .toList());
+    }
+
+    private void publishProductChanged(Long productId, ProductChangedEvent.ChangeType changeType) {
+        ProductChangedEvent event = ProductChangedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .productId(productId)
+                .changeType(changeType)
+                .originNodeId(productCatalog.getNodeId())
+                .timestamp(Instant.now())
+                .build();
+        applicationEventPublisher.publishEvent(new ProductChangedInternalEvent(this, event));
     }
 
     private ProductResponse mapToResponse(Product product) {
@@ -89,8 +309,16 @@ public class ProductServiceImpl implements ProductService {
                 .description(product.getDescription())
                 .price(product.getPrice())
                 .stock(product.getStock())
+                .version(product.getVersion())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .build();
     }
+
+    private enum SearchMode {
+        DATABASE, MEMORY
+    }
+
+    private record IndexedCatalog(List<ProductResponse> catalog, ProductSearchIndex index) {
+    }
 }
@@ -0,0 +1,84 @@
+package sk.coderama.ai.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sk.coderama.ai.cache.BoundedCache;
+import sk.coderama.ai.event.internal.UserChangedInternalEvent;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Emails this node has recently seen taken, so repeated sign-ups with the same address are rejected without
+ * hashing a password or running an insert. A hit is exact, not probabilistic: entries are only added once an
+ * insert committed or failed on the unique index. A miss proves nothing and the insert decides. Entries are
+ * evicted when an update or delete of the user commits here and otherwise live for the configured TTL, which
+ * bounds how long an address freed on another node is still refused. When full, an expired or idle email is
+ * evicted.
+ */
+@Component
+class RegisteredEmails {
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final BoundedCache<String, Boolean> taken;
+
+    RegisteredEmails(
+            @Value("${user.registered-emails.enabled:false}") boolean enabled,
+            @Value("${user.registered-emails.max-size:100000}") int maxSize,
+            @Value("${user.registered-emails.ttl:10m}") Duration ttl
+    ) {
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+        this.taken = new BoundedCache<>(maxSize);
+    }
+
+    boolean isTaken(String email) {
+        return enabled && taken.get(key(email), System.currentTimeMillis()) != null;
+    }
+
+    /**
+     * Records an email the unique index refused: the row holding it is already committed.
+     */
+    void markTaken(String email) {
+        if (enabled) {
+            long now = System.currentTimeMillis();
+            taken.put(key(email), Boolean.TRUE, now + ttlMillis, now);
+        }
+    }
+
+    /**
+     * Records an email inserted by the current transaction once that transaction commits, so a rolled-back
+     * registration does not leave the address refused.
+     */
+    void markTakenOnCommit(String email) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markTaken(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markTaken(email);
+            }
+        });
+    }
+
+    // The event carries the email the user had before the change, which is free again after commit
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserChanged(UserChangedInternalEvent event) {
+        taken.remove(key(event.getEmail()));
+    }
+
+    // Same folding as the lower(email) unique index
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,99 @@
+package sk.coderama.ai.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import sk.coderama.ai.repository.RevokedTokenRepository;
+import sk.coderama.ai.security.JtiBloomFilter;
+import sk.coderama.ai.service.TokenRevocationService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Revoked token ids live in the revoked_tokens table and, for the per-request check, in an
+ * in-memory Bloom filter. Most tokens are not revoked, so the filter answers "no" without a
+ * database round trip; a "maybe" is confirmed with a primary-key lookup. The filter is rebuilt
+ * from the table at startup and periodically (which also drops expired ids), and revocations
+ * made by other nodes are merged in by a frequent incremental sync.
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    // Covers commit delays and clock skew between nodes when syncing incrementally
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile JtiBloomFilter filter;
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationServiceImpl(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${jwt.revocation.expected-revocations:100000}") int expectedRevocations,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @Override
+    public boolean revoke(String jti, Date expiresAt) {
+        filter.put(jti);
+        try {
+            revokedTokenRepository.insert(jti, toLocalDateTime(expiresAt), LocalDateTime.now());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        return filter.mightContain(jti) && revokedTokenRepository.existsById(jti);
+    }
+
+    @Override
+    public void syncRecentRevocations() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> recent = revokedTokenRepository.findJtisRevokedSince(lastSync.minus(SYNC_OVERLAP), now);
+        JtiBloomFilter current = filter;
+        recent.forEach(current::put);
+        lastSync = now;
+    }
+
+    @Override
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        List<String> active = revokedTokenRepository.findActiveJtis(now);
+
+        JtiBloomFilter rebuilt = new JtiBloomFilter(Math.max(expectedRevocations, active.size() * 2), falsePositiveRate);
+        active.forEach(rebuilt::put);
+        filter = rebuilt;
+        lastSync = now;
+
+        // Picks up revocations that landed in the old filter while this one was being built
+        syncRecentRevocations();
+        log.info("Token revocation filter rebuilt: {} active revoked ids, {} expired purged, {} KB",
+                active.size(), purged, rebuilt.sizeInBytes() / 1024);
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
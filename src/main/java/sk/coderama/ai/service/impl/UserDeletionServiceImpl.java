@@ -0,0 +1,224 @@
+package sk.coderama.ai.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import sk.coderama.ai.dto.response.UserDeletionResponse;
+import sk.coderama.ai.entity.User;
+import sk.coderama.ai.entity.UserDeletionJob;
+import sk.coderama.ai.entity.UserDeletionStatus;
+import sk.coderama.ai.event.internal.UserChangedInternalEvent;
+import sk.coderama.ai.exception.ResourceNotFoundException;
+import sk.coderama.ai.repository.NotificationRepository;
+import sk.coderama.ai.repository.OrderItemRepository;
+import sk.coderama.ai.repository.OrderRepository;
+import sk.coderama.ai.repository.UserDeletionJobRepository;
+import sk.coderama.ai.repository.UserRepository;
+import sk.coderama.ai.service.UserDeletionService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes users in two phases. A request marks the user deleted, which hides them from every JPA query, frees
+ * their email and queues a job. The purge then removes the user's data child tables first, one small batch per
+ * transaction with a pause in between, so no statement holds many row locks and live traffic keeps its share
+ * of the database. Each batch commits together with the job's progress counters. Every batch only deletes rows
+ * that still exist, so a purge interrupted anywhere simply runs again from the first step.
+ */
+@Slf4j
+@Service
+public class UserDeletionServiceImpl implements UserDeletionService {
+
+    private static final int JOBS_PER_RUN = 10;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final UserRepository userRepository;
+    private final UserDeletionJobRepository jobRepository;
+    private final NotificationRepository notificationRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${user.deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${user.deletion.pause:50ms}")
+    private Duration pause;
+
+    @Value("${user.deletion.max-run-time:10s}")
+    private Duration maxRunTime;
+
+    @Value("${user.deletion.lease:5m}")
+    private Duration lease;
+
+    @Value("${user.deletion.retry-delay:1m}")
+    private Duration retryDelay;
+
+    public UserDeletionServiceImpl(
+            UserRepository userRepository,
+            UserDeletionJobRepository jobRepository,
+            NotificationRepository notificationRepository,
+            OrderItemRepository orderItemRepository,
+            OrderRepository orderRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.userRepository = userRepository;
+        this.jobRepository = jobRepository;
+        this.notificationRepository = notificationRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public UserDeletionResponse requestDeletion(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        String email = user.getEmail();
+
+        LocalDateTime now = LocalDateTime.now();
+        user.setDeletedAt(now);
+        // The address is free for a new account right away, and no longer stored for the deleted one
+        user.setEmail("deleted-" + userId + "@deleted.invalid");
+        userRepository.save(user);
+
+        UserDeletionJob job = jobRepository.save(UserDeletionJob.builder()
+                .userId(userId)
+                .status(UserDeletionStatus.PENDING)
+                .nextRunAt(now)
+                .build());
+        applicationEventPublisher.publishEvent(new UserChangedInternalEvent(this, userId, email));
+        log.info("Deletion of user {} requested", userId);
+        return mapToResponse(job);
+    }
+
+    @Override
+    public UserDeletionResponse getDeletion(Long userId) {
+        return jobRepository.findByUserId(userId)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("User deletion", "userId", userId));
+    }
+
+    @Override
+    public int purgeDueDeletions() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UserDeletionJob> jobs = transactionTemplate.execute(status -> {
+            List<UserDeletionJob> due = jobRepository.findDue(now, Limit.of(JOBS_PER_RUN));
+            if (!due.isEmpty()) {
+                jobRepository.claim(due.stream().map(UserDeletionJob::getId).toList(), now.plus(lease));
+            }
+            return due;
+        });
+        if (jobs == null || jobs.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        int completed = 0;
+        for (UserDeletionJob job : jobs) {
+            try {
+                if (purge(job, deadline)) {
+                    completed++;
+                }
+            } catch (Exception e) {
+                recordFailure(job.getId(), e);
+            }
+        }
+        return completed;
+    }
+
+    private boolean purge(UserDeletionJob job, long deadline) throws InterruptedException {
+        for (Step step : Step.values()) {
+            int deleted;
+            do {
+                if (System.nanoTime() > deadline) {
+                    // Out of time for this run: hand the job back, due at once, and continue with the next run
+                    transactionTemplate.executeWithoutResult(status -> jobRepository.findById(job.getId())
+                            .ifPresent(j -> j.setNextRunAt(LocalDateTime.now())));
+                    return false;
+                }
+                deleted = transactionTemplate.execute(status -> deleteBatch(job.getId(), job.getUserId(), step));
+                if (deleted >= batchSize && !pause.isZero()) {
+                    Thread.sleep(pause);
+                }
+            } while (deleted >= batchSize);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.deleteMarkedById(job.getUserId());
+            UserDeletionJob current = jobRepository.findById(job.getId()).orElseThrow();
+            current.setStatus(UserDeletionStatus.COMPLETED);
+            current.setCompletedAt(LocalDateTime.now());
+            current.setNextRunAt(null);
+            current.setLastError(null);
+        });
+        log.info("Purged user {}", job.getUserId());
+        return true;
+    }
+
+    private int deleteBatch(Long jobId, Long userId, Step step) {
+        int deleted = switch (step) {
+            case DIGEST_ORDERS -> notificationRepository.deleteDigestOrdersBatchByUserId(userId, batchSize);
+            case NOTIFICATIONS -> notificationRepository.deleteBatchByUserId(userId, batchSize);
+            case ORDER_ITEMS -> orderItemRepository.deleteBatchByUserId(userId, batchSize);
+            case ORDERS -> orderRepository.deleteBatchByUserId(userId, batchSize);
+        };
+
+        UserDeletionJob job = jobRepository.findById(jobId).orElseThrow();
+        switch (step) {
+            case NOTIFICATIONS -> job.setNotificationsDeleted(job.getNotificationsDeleted() + deleted);
+            case ORDER_ITEMS -> job.setOrderItemsDeleted(job.getOrderItemsDeleted() + deleted);
+            case ORDERS -> job.setOrdersDeleted(job.getOrdersDeleted() + deleted);
+            default -> {
+            }
+        }
+        // Every batch extends the lease, so only a worker that stopped making progress loses the job
+        job.setNextRunAt(LocalDateTime.now().plus(lease));
+        return deleted;
+    }
+
+    private void recordFailure(Long jobId, Exception e) {
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        String lastError = error;
+        LocalDateTime nextRunAt = LocalDateTime.now().plus(retryDelay);
+        log.warn("Purge job {} failed, retrying at {}: {}", jobId, nextRunAt, lastError);
+        transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+            job.setNextRunAt(nextRunAt);
+            job.setLastError(lastError);
+        }));
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private UserDeletionResponse mapToResponse(UserDeletionJob job) {
+        return UserDeletionResponse.builder()
+                .userId(job.getUserId())
+                .status(job.getStatus())
+                .notificationsDeleted(job.getNotificationsDeleted())
+                .orderItemsDeleted(job.getOrderItemsDeleted())
+                .ordersDeleted(job.getOrdersDeleted())
+                .lastError(job.getLastError())
+                .requestedAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    // In foreign key order: each step removes rows that reference the rows of a later step
+    private enum Step {
+        DIGEST_ORDERS, NOTIFICATIONS, ORDER_ITEMS, ORDERS
+    }
+}
@@ -1,36 +1,60 @@
 package sk.coderama.ai.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sk.coderama.ai.dto.request.CreateUserRequest;
 import sk.coderama.ai.dto.request.UpdateUserRequest;
+import sk.coderama.ai.dto.response.CursorPage;
 import sk.coderama.ai.dto.response.UserResponse;
 import sk.coderama.ai.entity.User;
+import sk.coderama.ai.event.internal.UserChangedInternalEvent;
 import sk.coderama.ai.exception.DuplicateResourceException;
 import sk.coderama.ai.exception.ResourceNotFoundException;
 import sk.coderama.ai.repository.UserRepository;
+import sk.coderama.ai.repository.UserSummary;
 import sk.coderama.ai.service.UserService;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RegisteredEmails registeredEmails;
 
     @Override
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> getUsers(String emailPrefix, String cursor, int size) {
+        KeysetCursor.checkPageSize(size, MAX_PAGE_SIZE);
+        String afterEmail = cursor == null ? "" : KeysetCursor.decode(cursor, 1)[0];
+
+        // Fetch one extra row to learn whether another page exists
+        Limit limit = Limit.of(size + 1);
+        List<UserSummary> users = emailPrefix == null || emailPrefix.isBlank()
+                ? userRepository.findDirectoryPage(afterEmail, limit)
+                : userRepository.findDirectoryPageByEmailPrefix(
+                        LikePatterns.prefix(emailPrefix.strip()), afterEmail, limit);
+
+        String nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextCursor = KeysetCursor.encode(users.get(size - 1).getEmail());
+        }
+        return new CursorPage<>(users.stream().map(this::mapToResponse).toList(), nextCursor);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
@@ -40,7 +64,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserResponse createUser(CreateUserRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (registeredEmails.isTaken(request.getEmail())) {
             throw new DuplicateResourceException("User", "email", request.getEmail());
         }
 
@@ -50,7 +74,7 @@ public class UserServiceImpl implements UserService {
                 .password(passwordEncoder.encode(request.getPassword()))
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveWithUniqueEmail(user);
         return mapToResponse(savedUser);
     }
 
@@ -59,9 +83,10 @@ public class UserServiceImpl implements UserService {
     public UserResponse updateUser(Long id, UpdateUserRequest request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        String previousEmail = user.getEmail();
 
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(request.getEmail())) {
+            if (registeredEmails.isTaken(request.getEmail())) {
                 throw new DuplicateResourceException("User", "email", request.getEmail());
             }
             user.setEmail(request.getEmail());
@@ -75,16 +100,34 @@ public class UserServiceImpl implements UserService {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
         }
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = saveWithUniqueEmail(user);
+        applicationEventPublisher.publishEvent(new UserChangedInternalEvent(this, id, previousEmail));
         return mapToResponse(updatedUser);
     }
 
-    @Override
-    @Transactional
-    public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
-        userRepository.delete(user);
+    /**
+     * Writes the user in one statement and lets the unique email indexes detect a taken address. The users table
+     * has no other constraint that valid requests can violate, so any integrity violation is a duplicate email.
+     */
+    private User saveWithUniqueEmail(User user) {
+        try {
+            User saved = userRepository.saveAndFlush(user);
+            registeredEmails.markTakenOnCommit(saved.getEmail());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            registeredEmails.markTaken(user.getEmail());
+            throw new DuplicateResourceException("User", "email", user.getEmail());
+        }
+    }
+
+    private UserResponse mapToResponse(UserSummary user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
     }
 
     private UserResponse mapToResponse(User user) {
@@ -0,0 +1,398 @@
+package sk.coderama.ai.sqlstats;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Attributes every JDBC statement to the request running it (see {@link SqlProfilingFilter}) and aggregates
+ * statements, rows and time per endpoint; statements outside a request (schedulers, event consumers) go to
+ * {@value #BACKGROUND}. Statements slower than {@code sql.profiling.slow-threshold} are logged and kept, and a
+ * sample of requests ({@code sql.profiling.trace-sample-rate}) is traced statement by statement. Recent slow
+ * statements and traces live in fixed-size rings, so memory stays bounded. Bind parameters are recorded by type
+ * unless {@code sql.profiling.log-parameters} is on; even then values are truncated, and values bound to password,
+ * email, token or secret columns (or to a statement using one where the column cannot be told) are masked.
+ * <p>
+ * The hot path is a thread-local lookup and a few counter increments per statement and per fetched row; nothing
+ * is formatted unless a statement is slow or its request is traced.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "sql.profiling.enabled", havingValue = "true")
+public class SqlProfiler implements QueryExecutionListener {
+
+    static final String BACKGROUND = "background";
+
+    private static final String STARTED_AT = "sqlProfiler.startedAt";
+    private static final int MAX_TRACED_STATEMENTS = 200;
+    private static final int MAX_SQL_LENGTH = 2000;
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final String MASKED = "***";
+    private static final Pattern SENSITIVE_COLUMN = Pattern.compile("(?i)password|email|token|jti|secret");
+    // Column compared with the placeholder that ends the text: "u.email = ", "price >= ", "id in (?, "
+    private static final Pattern COMPARED_COLUMN = Pattern.compile(
+            "(?i)([a-z_][\\w.]*)\\s*(?:=|<>|!=|<=|>=|<|>|\\s(?:not\\s+)?i?like"
+                    + "|\\s(?:not\\s+)?in\\s*\\((?:\\s*\\?\\s*,)*)\\s*$");
+    private static final Pattern INSERT_COLUMNS = Pattern.compile(
+            "(?is)^\\s*insert\\s+into\\s+\\S+\\s*\\(([^)]*)\\)\\s*values\\s*\\(");
+
+    private final ThreadLocal<RequestScope> current = new ThreadLocal<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final long slowThresholdNanos;
+    private final boolean logParameters;
+    private final AtomicReferenceArray<SlowStatement> slowStatements;
+    private final AtomicLong slowStatementCount = new AtomicLong();
+    private final AtomicReferenceArray<RequestTrace> traces;
+    private final AtomicLong traceCount = new AtomicLong();
+    private volatile double traceSampleRate;
+    private volatile Instant since = Instant.now();
+
+    public SqlProfiler(
+            @Value("${sql.profiling.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${sql.profiling.slow-capacity:100}") int slowCapacity,
+            @Value("${sql.profiling.trace-sample-rate:0}") double traceSampleRate,
+            @Value("${sql.profiling.trace-capacity:50}") int traceCapacity,
+            @Value("${sql.profiling.log-parameters:false}") boolean logParameters
+    ) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.logParameters = logParameters;
+        this.slowStatements = new AtomicReferenceArray<>(slowCapacity);
+        this.traces = new AtomicReferenceArray<>(traceCapacity);
+        setTraceSampleRate(traceSampleRate);
+    }
+
+    RequestScope begin(String request) {
+        double rate = traceSampleRate;
+        boolean traced = rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+        RequestScope scope = new RequestScope(request, traced);
+        current.set(scope);
+        return scope;
+    }
+
+    void end(RequestScope scope, String endpoint, int status, long elapsedNanos) {
+        current.remove();
+        stats(endpoint).addRequest(scope);
+        if (scope.traced) {
+            long slot = traceCount.getAndIncrement();
+            traces.set((int) (slot % traces.length()), new RequestTrace(Instant.now(), scope.request, endpoint,
+                    status, millis(elapsedNanos), scope.statements, scope.rows, millis(scope.nanos),
+                    List.copyOf(scope.trace)));
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        long nanos = startedAt == null ? 0 : System.nanoTime() - startedAt;
+        long rows = updatedRows(execInfo.getResult());
+
+        RequestScope scope = current.get();
+        if (scope != null) {
+            scope.statements++;
+            scope.rows += rows;
+            scope.nanos += nanos;
+            if (scope.traced && scope.trace.size() < MAX_TRACED_STATEMENTS) {
+                scope.lastTraced = new TracedStatement(sql(queryInfoList), parameters(queryInfoList, logParameters),
+                        rows, millis(nanos));
+                scope.trace.add(scope.lastTraced);
+            } else {
+                scope.lastTraced = null;
+            }
+        } else {
+            stats(BACKGROUND).addStatement(rows, nanos);
+        }
+
+        if (nanos >= slowThresholdNanos) {
+            String sql = sql(queryInfoList);
+            String parameters = parameters(queryInfoList, logParameters);
+            String request = scope != null ? scope.request : BACKGROUND;
+            log.warn("Slow SQL ({} ms, {}): {} {}", millis(nanos), request, sql, parameters);
+            long slot = slowStatementCount.getAndIncrement();
+            slowStatements.set((int) (slot % slowStatements.length()),
+                    new SlowStatement(Instant.now(), request, millis(nanos), sql, parameters));
+        }
+    }
+
+    /**
+     * Counts rows read through proxied result sets; called after every JDBC method on them.
+     */
+    void afterMethod(MethodExecutionContext context) {
+        if (!(context.getTarget() instanceof ResultSet) || !Boolean.TRUE.equals(context.getResult())
+                || !"next".equals(context.getMethod().getName())) {
+            return;
+        }
+        RequestScope scope = current.get();
+        if (scope != null) {
+            scope.rows++;
+            if (scope.lastTraced != null) {
+                scope.lastTraced.rows++;
+            }
+        } else {
+            stats(BACKGROUND).rows.increment();
+        }
+    }
+
+    SqlStatsReport report() {
+        List<SqlStatsReport.Endpoint> endpointReports = endpoints.entrySet().stream()
+                .map(e -> e.getValue().report(e.getKey()))
+                .sorted(Comparator.comparingDouble(SqlStatsReport.Endpoint::timeMs).reversed())
+                .toList();
+        return new SqlStatsReport(since, millis(slowThresholdNanos), traceSampleRate, endpointReports,
+                recent(slowStatements, slowStatementCount.get(), Comparator.comparing(SlowStatement::at)),
+                recent(traces, traceCount.get(), Comparator.comparing(RequestTrace::at)));
+    }
+
+    void reset() {
+        endpoints.clear();
+        for (int i = 0; i < slowStatements.length(); i++) {
+            slowStatements.set(i, null);
+        }
+        for (int i = 0; i < traces.length(); i++) {
+            traces.set(i, null);
+        }
+        since = Instant.now();
+    }
+
+    double getTraceSampleRate() {
+        return traceSampleRate;
+    }
+
+    void setTraceSampleRate(double traceSampleRate) {
+        if (traceSampleRate < 0 || traceSampleRate > 1) {
+            throw new IllegalArgumentException("Trace sample rate must be between 0 and 1, got " + traceSampleRate);
+        }
+        this.traceSampleRate = traceSampleRate;
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    // Newest first
+    private static <T> List<T> recent(AtomicReferenceArray<T> ring, long written, Comparator<T> order) {
+        List<T> entries = new ArrayList<>();
+        for (int i = 0; i < Math.min(written, ring.length()); i++) {
+            T entry = ring.get(i);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(order.reversed());
+        return entries;
+    }
+
+    // executeUpdate returns the row count, executeBatch one per statement; queries count rows as they are read
+    private static long updatedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof int[] counts) {
+            long rows = 0;
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        return 0;
+    }
+
+    private static String sql(List<QueryInfo> queries) {
+        String sql = queries.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "))
+                .replaceAll("\\s+", " ").trim();
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+
+    // Parameters of the first execution, as types or masked values; a batch also says how many more it ran
+    static String parameters(List<QueryInfo> queries, boolean values) {
+        if (queries.isEmpty() || queries.get(0).getParametersList().isEmpty()) {
+            return "[]";
+        }
+        String sql = queries.get(0).getQuery();
+        List<String> columns = values ? placeholderColumns(sql) : List.of();
+        boolean sensitiveStatement = values && SENSITIVE_COLUMN.matcher(sql).find();
+        List<List<ParameterSetOperation>> executions = queries.get(0).getParametersList();
+        String first = executions.get(0).stream()
+                .sorted(Comparator.comparingInt(SqlProfiler::index))
+                .map(operation -> {
+                    Object value = ParameterSetOperation.isSetNullParameterOperation(operation)
+                            || operation.getArgs().length < 2 ? null : operation.getArgs()[1];
+                    if (!values) {
+                        return value == null ? "null" : value.getClass().getSimpleName();
+                    }
+                    int index = index(operation) - 1;
+                    String column = index >= 0 && index < columns.size() ? columns.get(index) : null;
+                    boolean masked = column != null ? SENSITIVE_COLUMN.matcher(column).find() : sensitiveStatement;
+                    return masked ? MASKED : value(value);
+                })
+                .collect(Collectors.joining(", ", "[", "]"));
+        return executions.size() > 1 ? first + " (+" + (executions.size() - 1) + " more)" : first;
+    }
+
+    // 1-based position; named (callable statement) parameters sort first and map to no column
+    private static int index(ParameterSetOperation operation) {
+        return operation.getArgs()[0] instanceof Integer index ? index : 0;
+    }
+
+    private static String value(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof byte[] bytes) {
+            return "byte[" + bytes.length + "]";
+        }
+        String text = value.toString();
+        if (text.length() > MAX_PARAMETER_LENGTH) {
+            text = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+    /**
+     * Column each placeholder is bound to, by position; null where it cannot be told (a placeholder inside a function
+     * call, for example). Insert values map to the column list, other placeholders to the column compared or assigned
+     * right before them. Quoted literals are skipped, so a '?' inside one is not counted.
+     */
+    private static List<String> placeholderColumns(String sql) {
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        List<String> insertColumns = insert.find() ? List.of(insert.group(1).trim().split("\\s*,\\s*")) : List.of();
+        List<String> columns = new ArrayList<>();
+        boolean quoted = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '?' && !quoted) {
+                if (!insertColumns.isEmpty() && i >= insert.end()) {
+                    columns.add(insertColumns.get(columns.size() % insertColumns.size()));
+                } else {
+                    Matcher compared = COMPARED_COLUMN.matcher(sql.substring(0, i));
+                    columns.add(compared.find() ? compared.group(1) : null);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Counts of one request, touched only by the thread serving it.
+     */
+    static final class RequestScope {
+
+        private final String request;
+        private final boolean traced;
+        private final List<TracedStatement> trace;
+        private TracedStatement lastTraced;
+        private long statements;
+        private long rows;
+        private long nanos;
+
+        private RequestScope(String request, boolean traced) {
+            this.request = request;
+            this.traced = traced;
+            this.trace = traced ? new ArrayList<>() : List.of();
+        }
+    }
+
+    private static final class EndpointStats {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+        private void addRequest(RequestScope scope) {
+            requests.increment();
+            statements.add(scope.statements);
+            rows.add(scope.rows);
+            nanos.add(scope.nanos);
+            maxStatements.accumulate(scope.statements);
+        }
+
+        private void addStatement(long rowCount, long statementNanos) {
+            statements.increment();
+            rows.add(rowCount);
+            nanos.add(statementNanos);
+        }
+
+        private SqlStatsReport.Endpoint report(String endpoint) {
+            long requestCount = requests.sum();
+            long statementCount = statements.sum();
+            return new SqlStatsReport.Endpoint(endpoint, requestCount, statementCount, rows.sum(),
+                    millis(nanos.sum()),
+                    requestCount == 0 ? 0 : (double) statementCount / requestCount,
+                    maxStatements.get());
+        }
+    }
+
+    public static final class TracedStatement {
+
+        private final String sql;
+        private final String parameters;
+        private final double timeMs;
+        private long rows;
+
+        private TracedStatement(String sql, String parameters, long rows, double timeMs) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.rows = rows;
+            this.timeMs = timeMs;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getParameters() {
+            return parameters;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public double getTimeMs() {
+            return timeMs;
+        }
+    }
+
+    public record SlowStatement(Instant at, String request, double timeMs, String sql, String parameters) {
+    }
+
+    public record RequestTrace(Instant at, String request, String endpoint, int status, double elapsedMs, long statements,
+                        long rows, double sqlTimeMs, List<TracedStatement> trace) {
+    }
+}
@@ -0,0 +1,43 @@
+package sk.coderama.ai.sqlstats;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's connection pools in a datasource-proxy that reports to {@link SqlProfiler}. Result sets are
+ * proxied too, which is how rows read are counted. The proxy unwraps to the pool and driver classes, so Hikari
+ * metrics and PostgreSQL COPY keep working.
+ */
+@Configuration
+@ConditionalOnProperty(value = "sql.profiling.enabled", havingValue = "true")
+public class SqlProfilingDataSourceConfig {
+
+    // Static, so the post processor is registered before the DataSource it wraps is created
+    @Bean
+    public static BeanPostProcessor sqlProfilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> sqlProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Delegating data sources (the replica router's lazy proxy) lead to pools that are wrapped already
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                        || bean instanceof DelegatingDataSource) {
+                    return bean;
+                }
+                SqlProfiler profiler = sqlProfiler.getObject();
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(profiler)
+                        .proxyResultSet()
+                        .afterMethod(profiler::afterMethod)
+                        .build();
+            }
+        };
+    }
+}
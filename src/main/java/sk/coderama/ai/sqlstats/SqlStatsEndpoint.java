@@ -0,0 +1,40 @@
+package sk.coderama.ai.sqlstats;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/sqlstats}: GET reads the report, POST {@code {"traceSampleRate": 0.01}} changes the share of
+ * requests traced until the next restart, DELETE starts the counts over. All three are limited to
+ * {@code security.admin-emails} (see SecurityConfig).
+ */
+@Component
+@ConditionalOnProperty(value = "sql.profiling.enabled", havingValue = "true")
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private final SqlProfiler sqlProfiler;
+
+    public SqlStatsEndpoint(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @ReadOperation
+    public SqlStatsReport report() {
+        return sqlProfiler.report();
+    }
+
+    @WriteOperation
+    public void traceSampleRate(double traceSampleRate) {
+        sqlProfiler.setTraceSampleRate(traceSampleRate);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlProfiler.reset();
+    }
+}
@@ -0,0 +1,32 @@
+package sk.coderama.ai.sqlstats;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What {@code GET /actuator/sqlstats} returns: totals per endpoint since {@code since}, the most expensive first,
+ * then the most recent slow statements and request traces.
+ */
+public record SqlStatsReport(
+        Instant since,
+        double slowThresholdMs,
+        double traceSampleRate,
+        List<Endpoint> endpoints,
+        List<SqlProfiler.SlowStatement> slowStatements,
+        List<SqlProfiler.RequestTrace> traces
+) {
+
+    /**
+     * @param endpoint HTTP method and matched route, e.g. {@code GET /api/orders/{id}}, or {@code background}
+     */
+    public record Endpoint(
+            String endpoint,
+            long requests,
+            long statements,
+            long rows,
+            double timeMs,
+            double statementsPerRequest,
+            long maxStatementsPerRequest
+    ) {
+    }
+}
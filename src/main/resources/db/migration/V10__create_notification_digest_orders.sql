@@ -0,0 +1,11 @@
+-- Orders covered by a coalesced digest notification. The digest row itself only points at the
+-- first order; every covered order is listed here.
+-- No foreign key to notifications: on PostgreSQL that table is partitioned and only unique on
+-- (id, created_at).
+CREATE TABLE notification_digest_orders (
+    notification_id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+
+    CONSTRAINT pk_notification_digest_orders PRIMARY KEY (notification_id, order_id),
+    CONSTRAINT fk_notification_digest_orders_order FOREIGN KEY (order_id) REFERENCES orders(id)
+);
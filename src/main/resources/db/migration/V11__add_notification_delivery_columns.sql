@@ -0,0 +1,12 @@
+-- Delivery bookkeeping for the notification worker. PENDING rows are due once next_attempt_at
+-- has passed; a claimed row has next_attempt_at pushed out by the lease, so rows of a crashed
+-- worker become due again on their own.
+ALTER TABLE notifications ADD COLUMN attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE notifications ADD COLUMN next_attempt_at TIMESTAMP;
+ALTER TABLE notifications ADD COLUMN last_error VARCHAR(500);
+
+UPDATE notifications SET next_attempt_at = created_at WHERE status = 'PENDING';
+
+-- The claim query filters on status and walks next_attempt_at in order, so both go in one index
+DROP INDEX idx_notifications_status;
+CREATE INDEX idx_notifications_status ON notifications(status, next_attempt_at);
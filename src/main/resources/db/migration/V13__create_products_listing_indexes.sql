@@ -0,0 +1,6 @@
+-- Keyset indexes for the filtered product listing: each sort walks its index from the cursor position.
+-- idx_products_name_id also serves plain lookups by name, so the single-column index is dropped.
+CREATE INDEX idx_products_price_id ON products(price, id);
+CREATE INDEX idx_products_name_id ON products(name, id);
+
+DROP INDEX idx_products_name;
@@ -0,0 +1,12 @@
+-- Staging area for bulk product imports. Rows are written, merged into products and deleted again
+-- inside the importing transaction, so other sessions never see them.
+CREATE TABLE product_import_rows (
+    import_id VARCHAR(36) NOT NULL,
+    row_no BIGINT NOT NULL,
+    product_id BIGINT,
+    name VARCHAR(100) NOT NULL,
+    description TEXT,
+    price DECIMAL(10, 2) NOT NULL,
+    stock INTEGER NOT NULL,
+    PRIMARY KEY (import_id, row_no)
+);
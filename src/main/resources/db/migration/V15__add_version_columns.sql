@@ -0,0 +1,4 @@
+-- Optimistic locking: every entity update checks and increments the row version.
+-- A constant default keeps this a catalog-only change on PostgreSQL, without rewriting the tables.
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
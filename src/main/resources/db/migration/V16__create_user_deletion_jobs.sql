@@ -0,0 +1,23 @@
+-- Soft delete: a deleted user disappears from every query at once and is purged in the background.
+ALTER TABLE users ADD COLUMN deleted_at TIMESTAMP;
+
+-- One row per requested deletion. The purge worker removes the user's data in small batches and records
+-- progress with each batch, so a purge interrupted at any point resumes where it stopped.
+-- No foreign key to users: the job removes the user row itself and outlives it.
+CREATE TABLE user_deletion_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL UNIQUE,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'COMPLETED')),
+    notifications_deleted BIGINT NOT NULL DEFAULT 0,
+    order_items_deleted BIGINT NOT NULL DEFAULT 0,
+    orders_deleted BIGINT NOT NULL DEFAULT 0,
+    next_run_at TIMESTAMP,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX idx_user_deletion_jobs_due ON user_deletion_jobs(status, next_run_at);
+
+-- The purge deletes digest rows by order; the index also spares the orders foreign key check a full scan
+CREATE INDEX idx_notification_digest_orders_order_id ON notification_digest_orders(order_id);
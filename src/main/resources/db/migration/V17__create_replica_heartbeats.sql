@@ -0,0 +1,7 @@
+-- One row per application node, written on the primary and read back on the read replica to measure how far
+-- the replica is behind. beat is the node's monotonic clock in nanoseconds and only means something to that node.
+CREATE TABLE replica_heartbeats (
+    node_id VARCHAR(36) PRIMARY KEY,
+    beat BIGINT NOT NULL,
+    beat_at TIMESTAMP NOT NULL
+);
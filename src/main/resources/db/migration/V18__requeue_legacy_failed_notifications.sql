@@ -0,0 +1,6 @@
+-- Notifications that failed before the delivery worker existed (V11) were never retried: they are FAILED with
+-- no recorded attempt. Put them back on the retry path; the worker gives them the full notification.delivery.max-attempts.
+-- Rows the worker itself marked FAILED have used up their attempts and stay as they are.
+UPDATE notifications
+SET status = 'PENDING', next_attempt_at = CURRENT_TIMESTAMP
+WHERE status = 'FAILED' AND attempts = 0;
@@ -0,0 +1,28 @@
+-- Notifications reference a template id plus a compact parameter payload instead of
+-- storing the fully rendered text. Parameters are separated by the ASCII unit separator.
+ALTER TABLE notifications ADD COLUMN template_id SMALLINT;
+ALTER TABLE notifications ADD COLUMN template_params TEXT;
+
+-- Anything that does not match a known template is kept verbatim under the LEGACY template (0)
+UPDATE notifications SET template_id = 0, template_params = message;
+
+UPDATE notifications
+SET template_id = 1,
+    template_params = regexp_replace(
+        message,
+        '^Your order #[0-9]+ has been successfully completed! Total: \$(.*)\. Payment Reference: (.*)$',
+        '\1' || chr(31) || '\2')
+WHERE event_type = 'ORDER_COMPLETED'
+  AND message ~ '^Your order #[0-9]+ has been successfully completed! Total: \$(.*)\. Payment Reference: (.*)$';
+
+UPDATE notifications
+SET template_id = 2,
+    template_params = regexp_replace(
+        message,
+        '^Your order #[0-9]+ has expired\. Previous status: ([A-Z]+)\. Reason: (.*)$',
+        '\1' || chr(31) || '\2')
+WHERE event_type = 'ORDER_EXPIRED'
+  AND message ~ '^Your order #[0-9]+ has expired\. Previous status: ([A-Z]+)\. Reason: (.*)$';
+
+ALTER TABLE notifications ALTER COLUMN template_id SET NOT NULL;
+ALTER TABLE notifications DROP COLUMN message;
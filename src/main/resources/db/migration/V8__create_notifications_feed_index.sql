@@ -0,0 +1,6 @@
+-- One composite index serves the per-user feed (filter on user_id, keyset on created_at, id)
+-- and the user_id foreign key; the single-column indexes it replaces only added insert cost.
+CREATE INDEX idx_notifications_user_feed ON notifications(user_id, created_at DESC, id DESC);
+
+DROP INDEX idx_notifications_created_at;
+DROP INDEX idx_notifications_event_type;
@@ -4,8 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.stream.binder.test.EnableTestBinder;
 import org.springframework.test.context.ActiveProfiles;
+import sk.coderama.ai.repository.NotificationRepository;
 import sk.coderama.ai.repository.OrderItemRepository;
 import sk.coderama.ai.repository.OrderRepository;
 import sk.coderama.ai.repository.ProductRepository;
@@ -14,11 +17,15 @@ import sk.coderama.ai.security.JwtTokenProvider;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
+@EnableTestBinder
 public abstract class BaseIntegrationTest {
 
     @LocalServerPort
     protected int port;
 
+    @LocalManagementPort
+    protected int managementPort;
+
     @Autowired
     protected TestRestTemplate restTemplate;
 
@@ -37,11 +44,16 @@ public abstract class BaseIntegrationTest {
     @Autowired
     protected OrderItemRepository orderItemRepository;
 
+    @Autowired
+    protected NotificationRepository notificationRepository;
+
     protected String baseUrl;
+    protected String managementUrl;
 
     @BeforeEach
     void setUp() {
         baseUrl = "http://localhost:" + port;
+        managementUrl = "http://localhost:" + managementPort;
     }
 
     protected String getBaseUrl() {
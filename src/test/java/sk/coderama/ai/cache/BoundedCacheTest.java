@@ -0,0 +1,105 @@
+package sk.coderama.ai.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void shouldServeEntryUntilItExpires() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        cache.put("a", "A", NOW + 100, NOW);
+
+        assertThat(cache.get("a", NOW)).isEqualTo("A");
+        assertThat(cache.get("a", NOW + 99)).isEqualTo("A");
+        assertThat(cache.get("a", NOW + 100)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldNeverHoldMoreThanMaxSize() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(3);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i, NOW + 1_000, NOW + i);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get(99, NOW + 100)).isEqualTo(99);
+        assertThat(cache.get(96, NOW + 100)).isNull();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedWhenFull() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.put("a", "A", NOW + 100, NOW);
+        cache.put("b", "B", NOW + 100, NOW + 1);
+        cache.get("a", NOW + 2);
+
+        // When: a new key arrives while the cache is full of live entries
+        cache.put("c", "C", NOW + 100, NOW + 3);
+
+        // Then: it is recorded and the idle entry makes room for it
+        assertThat(cache.get("a", NOW + 4)).isEqualTo("A");
+        assertThat(cache.get("b", NOW + 4)).isNull();
+        assertThat(cache.get("c", NOW + 4)).isEqualTo("C");
+    }
+
+    @Test
+    void shouldEvictExpiredEntryBeforeLiveOnes() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.put("a", "A", NOW + 100, NOW);
+        cache.put("b", "B", NOW + 10, NOW + 1);
+        cache.get("b", NOW + 2);
+
+        cache.put("c", "C", NOW + 100, NOW + 20);
+
+        assertThat(cache.get("a", NOW + 21)).isEqualTo("A");
+        assertThat(cache.get("c", NOW + 21)).isEqualTo("C");
+    }
+
+    @Test
+    void shouldStayNearMaxSizeUnderConcurrentPuts() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100);
+        int threads = 8;
+
+        CompletableFuture.allOf(IntStream.range(0, threads)
+                .mapToObj(thread -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        int key = thread * 10_000 + i;
+                        cache.put(key, key, NOW + 1_000, NOW);
+                        cache.get(key, NOW);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)).join();
+
+        // Threads that find another one evicting do not wait, so a few extra entries may be left
+        assertThat(cache.size()).isBetween(100, 100 + threads);
+    }
+
+    @Test
+    void shouldRemoveEntry() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.put("a", "A", NOW + 100, NOW);
+
+        cache.remove("a");
+
+        assertThat(cache.get("a", NOW)).isNull();
+    }
+
+    @Test
+    void shouldCacheNothingWhenDisabled() {
+        BoundedCache<String, String> cache = new BoundedCache<>(0);
+
+        cache.put("a", "A", NOW + 100, NOW);
+
+        assertThat(cache.get("a", NOW)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
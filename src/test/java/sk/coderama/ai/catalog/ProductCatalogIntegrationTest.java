@@ -0,0 +1,110 @@
+package sk.coderama.ai.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.messaging.support.MessageBuilder;
+import sk.coderama.ai.BaseIntegrationTest;
+import sk.coderama.ai.dto.request.CreateProductRequest;
+import sk.coderama.ai.dto.request.UpdateProductRequest;
+import sk.coderama.ai.dto.response.ProductResponse;
+import sk.coderama.ai.entity.Product;
+import sk.coderama.ai.event.ProductChangedEvent;
+import sk.coderama.ai.service.ProductService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCatalogIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private InputDestination inputDestination;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldServeLocalWritesAfterCommit() {
+        // Given
+        ProductResponse created = productService.createProduct(
+                new CreateProductRequest("Catalog Lamp", "Desk lamp", BigDecimal.valueOf(25.00), 10));
+        assertThat(productService.getAllProducts()).extracting(ProductResponse::getId).contains(created.getId());
+
+        // When
+        UpdateProductRequest update = new UpdateProductRequest();
+        update.setPrice(BigDecimal.valueOf(19.99));
+        productService.updateProduct(created.getId(), update);
+
+        // Then
+        assertThat(productService.getAllProducts())
+                .filteredOn(p -> p.getId().equals(created.getId()))
+                .singleElement()
+                .extracting(ProductResponse::getPrice)
+                .isEqualTo(BigDecimal.valueOf(19.99));
+
+        productService.deleteProduct(created.getId());
+        assertThat(productService.getAllProducts()).extracting(ProductResponse::getId).doesNotContain(created.getId());
+    }
+
+    @Test
+    void shouldRefreshOnChangeEventFromAnotherNode() throws Exception {
+        // Given - a product written by another node, which this node's snapshot does not have yet
+        productService.getAllProducts();
+        Product remote = productRepository.save(Product.builder()
+                .name("Remote Chair")
+                .price(BigDecimal.valueOf(80.00))
+                .stock(3)
+                .build());
+        assertThat(productService.getAllProducts()).extracting(ProductResponse::getId).doesNotContain(remote.getId());
+
+        // When - an event published by this node comes back from the broker, nothing changes
+        sendProductChanged(remote.getId(), productCatalog.getNodeId());
+        assertThat(productService.getAllProducts()).extracting(ProductResponse::getId).doesNotContain(remote.getId());
+
+        // Then - the other node's event rebuilds the snapshot
+        sendProductChanged(remote.getId(), "other-node");
+        assertThat(productService.getAllProducts()).extracting(ProductResponse::getId).contains(remote.getId());
+    }
+
+    @Test
+    void shouldReportStalenessUntilRebuilt() {
+        productService.getAllProducts();
+        assertThat(staleness()).isZero();
+
+        productCatalog.markChanged(Instant.now().minusSeconds(5));
+        assertThat(staleness()).isGreaterThanOrEqualTo(5000);
+
+        productService.getAllProducts();
+        assertThat(staleness()).isZero();
+    }
+
+    private void sendProductChanged(Long productId, String originNodeId) throws Exception {
+        ProductChangedEvent event = ProductChangedEvent.builder()
+                .eventId("evt-product-" + productId + "-" + originNodeId)
+                .productId(productId)
+                .changeType(ProductChangedEvent.ChangeType.CREATED)
+                .originNodeId(originNodeId)
+                .timestamp(Instant.now())
+                .build();
+        inputDestination.send(MessageBuilder.withPayload(objectMapper.writeValueAsBytes(event)).build(),
+                "product.changed");
+    }
+
+    private double staleness() {
+        return meterRegistry.get("product.catalog.staleness").timeGauge().value(TimeUnit.MILLISECONDS);
+    }
+}
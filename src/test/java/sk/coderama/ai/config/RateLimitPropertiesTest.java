@@ -0,0 +1,53 @@
+package sk.coderama.ai.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfiguration.class);
+
+    @Test
+    void shouldBindValidRule() {
+        contextRunner
+                .withPropertyValues("rate-limit.rules[0].path=/api/**", "rate-limit.rules[0].capacity=10",
+                        "rate-limit.rules[0].period=1m")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @Test
+    void shouldRejectZeroCapacity() {
+        contextRunner
+                .withPropertyValues("rate-limit.rules[0].path=/api/**", "rate-limit.rules[0].capacity=0",
+                        "rate-limit.rules[0].period=1m")
+                .run(context -> assertThat(context).getFailure()
+                        .rootCause().hasMessageContaining("rules[0].capacity"));
+    }
+
+    @Test
+    void shouldRejectZeroPeriod() {
+        contextRunner
+                .withPropertyValues("rate-limit.rules[0].path=/api/**", "rate-limit.rules[0].capacity=10",
+                        "rate-limit.rules[0].period=0s")
+                .run(context -> assertThat(context).getFailure()
+                        .rootCause().hasMessageContaining("rules[0].periodPositive"));
+    }
+
+    @Test
+    void shouldRejectMissingPeriod() {
+        contextRunner
+                .withPropertyValues("rate-limit.rules[0].path=/api/**", "rate-limit.rules[0].capacity=10")
+                .run(context -> assertThat(context).getFailure()
+                        .rootCause().hasMessageContaining("rules[0].period"));
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(RateLimitProperties.class)
+    static class PropertiesConfiguration {
+    }
+}
@@ -0,0 +1,75 @@
+package sk.coderama.ai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import sk.coderama.ai.BaseIntegrationTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "virtual-threads.pinning.threshold=10ms"
+})
+class VirtualThreadsIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext applicationContext;
+
+    @Autowired
+    private ListenerContainerCustomizer<MessageListenerContainer> listenerContainerCustomizer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldRunRequestsAndStreamConsumersOnVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) applicationContext.getWebServer();
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(VirtualThreadExecutor.class);
+
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(new CachingConnectionFactory());
+        listenerContainerCustomizer.configure(container, "order.created", "order-processing-service");
+        assertThat(ReflectionTestUtils.getField(container, "taskExecutor"))
+                .isInstanceOf(VirtualThreadTaskExecutor.class);
+    }
+
+    @Test
+    void shouldRecordVirtualThreadsPinnedBySynchronizedBlocks() throws Exception {
+        // Given
+        double before = pinnedCount();
+        Object lock = new Object();
+
+        // When - sleeping inside synchronized keeps the carrier thread
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // Then - JFR streams its events about once a second
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pinnedCount() == before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(pinnedCount()).isGreaterThan(before);
+    }
+
+    private double pinnedCount() {
+        return meterRegistry.get("jvm.threads.virtual.pinned").timer().count();
+    }
+}
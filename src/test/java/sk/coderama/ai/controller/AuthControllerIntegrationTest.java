@@ -4,11 +4,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.*;
 import sk.coderama.ai.BaseIntegrationTest;
 import sk.coderama.ai.dto.request.LoginRequest;
+import sk.coderama.ai.dto.request.RefreshTokenRequest;
 import sk.coderama.ai.dto.request.RegisterRequest;
 import sk.coderama.ai.dto.response.ErrorResponse;
 import sk.coderama.ai.dto.response.JwtResponse;
 import sk.coderama.ai.dto.response.UserResponse;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class AuthControllerIntegrationTest extends BaseIntegrationTest {
@@ -167,6 +175,35 @@ class AuthControllerIntegrationTest extends BaseIntegrationTest {
         assertThat(response.getBody().getMessage()).contains("already exists");
     }
 
+    @Test
+    void shouldRegisterConcurrentDuplicateEmailOnlyOnce() throws Exception {
+        // Given
+        RegisterRequest request = new RegisterRequest("Racing User", "racing@example.com", "password123");
+        int attempts = 6;
+
+        // When - all sign-ups race past any check and only the unique constraint can stop them
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        List<Future<HttpStatusCode>> results = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            results.add(executor.submit(() -> restTemplate.postForEntity(
+                    baseUrl + "/api/auth/register",
+                    request,
+                    String.class
+            ).getStatusCode()));
+        }
+        List<HttpStatusCode> statuses = new ArrayList<>();
+        for (Future<HttpStatusCode> result : results) {
+            statuses.add(result.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(statuses).containsOnlyOnce(HttpStatus.CREATED);
+        assertThat(statuses).filteredOn(status -> status != HttpStatus.CREATED)
+                .containsOnly(HttpStatus.BAD_REQUEST);
+        assertThat(userRepository.findByEmail("racing@example.com")).isPresent();
+    }
+
     @Test
     void shouldReturn400WhenRegisteringWithInvalidEmail() {
         // Given
@@ -188,4 +225,97 @@ class AuthControllerIntegrationTest extends BaseIntegrationTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getErrors()).isNotEmpty();
     }
+
+    @Test
+    void shouldRotateRefreshTokenAndRejectReuse() {
+        // Given
+        JwtResponse login = registerAndLogin("refresh@example.com");
+        assertThat(login.getRefreshToken()).isNotNull();
+        assertThat(login.getExpiresIn()).isPositive();
+
+        // When
+        ResponseEntity<JwtResponse> refreshed = restTemplate.postForEntity(
+                baseUrl + "/api/auth/refresh",
+                new RefreshTokenRequest(login.getRefreshToken()),
+                JwtResponse.class
+        );
+
+        // Then - a new pair is issued and works
+        assertThat(refreshed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(refreshed.getBody().getToken()).isNotEqualTo(login.getToken());
+        assertThat(refreshed.getBody().getRefreshToken()).isNotEqualTo(login.getRefreshToken());
+        assertThat(getUsers(refreshed.getBody().getToken()).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // And the old refresh token cannot be used again
+        ResponseEntity<ErrorResponse> reused = restTemplate.postForEntity(
+                baseUrl + "/api/auth/refresh",
+                new RefreshTokenRequest(login.getRefreshToken()),
+                ErrorResponse.class
+        );
+        assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void shouldRejectRefreshTokenAsBearerToken() {
+        // Given
+        JwtResponse login = registerAndLogin("refresh-bearer@example.com");
+
+        // When
+        ResponseEntity<String> response = getUsers(login.getRefreshToken());
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void shouldRevokeTokensOnLogout() {
+        // Given
+        JwtResponse login = registerAndLogin("logout@example.com");
+        assertThat(getUsers(login.getToken()).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + login.getToken());
+
+        // When
+        ResponseEntity<Void> logout = restTemplate.exchange(
+                baseUrl + "/api/auth/logout",
+                HttpMethod.POST,
+                new HttpEntity<>(new RefreshTokenRequest(login.getRefreshToken()), headers),
+                Void.class
+        );
+
+        // Then - neither the access nor the refresh token is accepted any more
+        assertThat(logout.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(getUsers(login.getToken()).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        ResponseEntity<ErrorResponse> refresh = restTemplate.postForEntity(
+                baseUrl + "/api/auth/refresh",
+                new RefreshTokenRequest(login.getRefreshToken()),
+                ErrorResponse.class
+        );
+        assertThat(refresh.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private JwtResponse registerAndLogin(String email) {
+        restTemplate.postForEntity(
+                baseUrl + "/api/auth/register",
+                new RegisterRequest("Token User", email, "password123"),
+                UserResponse.class
+        );
+        return restTemplate.postForEntity(
+                baseUrl + "/api/auth/login",
+                new LoginRequest(email, "password123"),
+                JwtResponse.class
+        ).getBody();
+    }
+
+    private ResponseEntity<String> getUsers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + token);
+        return restTemplate.exchange(
+                baseUrl + "/api/users",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+        );
+    }
 }
@@ -9,13 +9,19 @@ import sk.coderama.ai.dto.request.CreateProductRequest;
 import sk.coderama.ai.dto.request.LoginRequest;
 import sk.coderama.ai.dto.request.RegisterRequest;
 import sk.coderama.ai.dto.request.UpdateProductRequest;
+import sk.coderama.ai.dto.response.CursorPage;
 import sk.coderama.ai.dto.response.ErrorResponse;
 import sk.coderama.ai.dto.response.JwtResponse;
 import sk.coderama.ai.dto.response.ProductResponse;
 import sk.coderama.ai.dto.response.UserResponse;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -251,4 +257,196 @@ class ProductControllerIntegrationTest extends BaseIntegrationTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
+
+    @Test
+    void shouldSearchProductsByPrefixRankedAndPaged() {
+        // Given - a name match ranks above a description-only match
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+        Long descriptionMatch = createProduct(headers, "Plain Box", "Fits a zephyrquill pen", 5).getId();
+        Long nameMatch = createProduct(headers, "Zephyrquill Pen", "Fountain pen", 10).getId();
+        createProduct(headers, "Zephyrquill Ink", "Bottled ink", 15);
+
+        // When
+        ResponseEntity<List<ProductResponse>> firstPage = restTemplate.exchange(
+                baseUrl + "/api/products/search?q=zephyrq pen&size=1",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<ProductResponse>>() {}
+        );
+        String cursor = firstPage.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+        ResponseEntity<List<ProductResponse>> secondPage = restTemplate.exchange(
+                baseUrl + "/api/products/search?q=zephyrq pen&size=1&cursor=" + cursor,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<ProductResponse>>() {}
+        );
+
+        // Then - the ink matches "zephyrq" but not "pen"
+        assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(firstPage.getBody()).extracting(ProductResponse::getId).containsExactly(nameMatch);
+        assertThat(cursor).isNotNull();
+        assertThat(secondPage.getBody()).extracting(ProductResponse::getId).containsExactly(descriptionMatch);
+        assertThat(secondPage.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    void shouldRejectSearchWithoutTerms() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+
+        // When
+        ResponseEntity<ErrorResponse> response = restTemplate.exchange(
+                baseUrl + "/api/products/search?q=---",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                ErrorResponse.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldFilterSortAndPageProducts() {
+        // Given - two in-stock matches under the price limit, one out of stock and one too expensive
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+        Long cheap = createProduct(headers, "Quokkalamp Mini", "Small", 20).getId();
+        Long mid = createProduct(headers, "Quokkalamp Desk", "Medium", 40).getId();
+        Long soldOut = createProduct(headers, "Quokkalamp Floor", "Large", 30).getId();
+        createProduct(headers, "Quokkalamp Deluxe", "Huge", 500);
+        UpdateProductRequest outOfStock = new UpdateProductRequest();
+        outOfStock.setStock(0);
+        restTemplate.exchange(baseUrl + "/api/products/" + soldOut, HttpMethod.PUT,
+                new HttpEntity<>(outOfStock, headers), ProductResponse.class);
+
+        String query = "/api/products?namePrefix=quokkaLAMP&maxPrice=100&inStock=true&sort=PRICE_DESC&size=1";
+
+        // When
+        ResponseEntity<List<ProductResponse>> firstPage = restTemplate.exchange(
+                baseUrl + query,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<ProductResponse>>() {}
+        );
+        String cursor = firstPage.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+        ResponseEntity<List<ProductResponse>> secondPage = restTemplate.exchange(
+                baseUrl + query + "&cursor=" + cursor,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<ProductResponse>>() {}
+        );
+
+        // Then
+        assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(firstPage.getBody()).extracting(ProductResponse::getId).containsExactly(mid);
+        assertThat(secondPage.getBody()).extracting(ProductResponse::getId).containsExactly(cheap);
+        assertThat(secondPage.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    void shouldRejectCursorOfAnotherSortOrder() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+        createProduct(headers, "Cursor Product A", "A", 1);
+        createProduct(headers, "Cursor Product B", "B", 2);
+        String cursor = restTemplate.exchange(
+                baseUrl + "/api/products?sort=NAME_ASC&size=1",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<ProductResponse>>() {}
+        ).getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+
+        // When
+        ResponseEntity<ErrorResponse> response = restTemplate.exchange(
+                baseUrl + "/api/products?sort=PRICE_ASC&size=1&cursor=" + cursor,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                ErrorResponse.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldReturn409WhenUpdatingFromStaleVersion() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+        ProductResponse created = createProduct(headers, "Versioned Product", "V", 10);
+        UpdateProductRequest update = new UpdateProductRequest();
+        update.setStock(5);
+        update.setVersion(created.getVersion());
+
+        ResponseEntity<ProductResponse> first = restTemplate.exchange(
+                baseUrl + "/api/products/" + created.getId(),
+                HttpMethod.PUT,
+                new HttpEntity<>(update, headers),
+                ProductResponse.class
+        );
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().getVersion()).isEqualTo(created.getVersion() + 1);
+
+        // When - a second edit based on the same read
+        ResponseEntity<ErrorResponse> second = restTemplate.exchange(
+                baseUrl + "/api/products/" + created.getId(),
+                HttpMethod.PUT,
+                new HttpEntity<>(update, headers),
+                ErrorResponse.class
+        );
+
+        // Then
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void shouldNotLoseConcurrentUpdates() throws Exception {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+        ProductResponse created = createProduct(headers, "Contended Product", "C", 10);
+        int writers = 8;
+
+        // When - every writer updates the same row at once
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<HttpStatusCode>> results = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            UpdateProductRequest update = new UpdateProductRequest();
+            update.setStock(i);
+            results.add(executor.submit(() -> restTemplate.exchange(
+                    baseUrl + "/api/products/" + created.getId(),
+                    HttpMethod.PUT,
+                    new HttpEntity<>(update, headers),
+                    String.class
+            ).getStatusCode()));
+        }
+        int succeeded = 0;
+        for (Future<HttpStatusCode> result : results) {
+            HttpStatusCode status = result.get(30, TimeUnit.SECONDS);
+            assertThat(status).isIn(HttpStatus.OK, HttpStatus.CONFLICT);
+            if (status == HttpStatus.OK) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        // Then - each successful update moved the version exactly once
+        assertThat(succeeded).isPositive();
+        assertThat(productRepository.findById(created.getId()).orElseThrow().getVersion())
+                .isEqualTo(created.getVersion() + succeeded);
+    }
+
+    private ProductResponse createProduct(HttpHeaders headers, String name, String description, int price) {
+        CreateProductRequest request = new CreateProductRequest(name, description, BigDecimal.valueOf(price), 10);
+        return restTemplate.exchange(
+                baseUrl + "/api/products",
+                HttpMethod.POST,
+                new HttpEntity<>(request, headers),
+                ProductResponse.class
+        ).getBody();
+    }
 }
@@ -0,0 +1,123 @@
+package sk.coderama.ai.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import sk.coderama.ai.BaseIntegrationTest;
+import sk.coderama.ai.dto.request.LoginRequest;
+import sk.coderama.ai.dto.request.RegisterRequest;
+import sk.coderama.ai.dto.response.ErrorResponse;
+import sk.coderama.ai.dto.response.JwtResponse;
+import sk.coderama.ai.dto.response.ProductImportResponse;
+import sk.coderama.ai.dto.response.UserResponse;
+import sk.coderama.ai.entity.Product;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductImportIntegrationTest extends BaseIntegrationTest {
+
+    private String authToken;
+
+    @BeforeEach
+    void setUpAuth() {
+        restTemplate.postForEntity(
+                baseUrl + "/api/auth/register",
+                new RegisterRequest("Import Admin", "importadmin@test.com", "password123"),
+                UserResponse.class
+        );
+        authToken = restTemplate.postForEntity(
+                baseUrl + "/api/auth/login",
+                new LoginRequest("importadmin@test.com", "password123"),
+                JwtResponse.class
+        ).getBody().getToken();
+    }
+
+    @Test
+    void shouldImportCsvAndReportRejectedRows() {
+        // Given - one update, two inserts, a repeated id, an unknown id and an invalid price
+        Product existing = productRepository.save(Product.builder()
+                .name("Import Target")
+                .price(BigDecimal.valueOf(10.00))
+                .stock(1)
+                .build());
+        String csv = """
+                id,name,description,price,stock
+                %1$d,Import Target,"Renamed, with a ""quoted"" note",11.50,2
+                ,Import New A,,5.00,10
+                ,Import New B,Second,6.00,20
+                %1$d,Import Target,Final,12.00,3
+                999999,Ghost,,1.00,1
+                ,Bad Price,,abc,1
+                """.formatted(existing.getId());
+
+        // When
+        ResponseEntity<ProductImportResponse> response = post(csv, "text/csv", ProductImportResponse.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ProductImportResponse result = response.getBody();
+        assertThat(result.getReceived()).isEqualTo(6);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(ProductImportResponse.RowError::getRow).containsExactly(1L, 5L, 6L);
+        assertThat(result.isErrorsTruncated()).isFalse();
+
+        Product updated = productRepository.findById(existing.getId()).orElseThrow();
+        assertThat(updated.getDescription()).isEqualTo("Final");
+        assertThat(updated.getPrice()).isEqualByComparingTo("12.00");
+        assertThat(updated.getStock()).isEqualTo(3);
+        assertThat(productRepository.findAll()).extracting(Product::getName).contains("Import New A", "Import New B");
+    }
+
+    @Test
+    void shouldImportNdjsonSkippingMalformedLines() {
+        // Given
+        String ndjson = """
+                {"name":"Ndjson Lamp","description":"Quoted \\"text\\"","price":19.99,"stock":4}
+                {"name":"Broken",
+                {"name":"Ndjson Chair","price":"45.5","stock":"7"}
+                """;
+
+        // When
+        ResponseEntity<ProductImportResponse> response = post(ndjson, "application/x-ndjson", ProductImportResponse.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getInserted()).isEqualTo(2);
+        assertThat(response.getBody().getErrors()).extracting(ProductImportResponse.RowError::getRow).containsExactly(2L);
+        assertThat(productRepository.findAll())
+                .filteredOn(p -> p.getName().equals("Ndjson Lamp"))
+                .singleElement()
+                .extracting(Product::getDescription)
+                .isEqualTo("Quoted \"text\"");
+    }
+
+    @Test
+    void shouldRejectCsvWithoutRequiredColumns() {
+        // When
+        ResponseEntity<ErrorResponse> response = post("name,stock\nNo Price,1\n", "text/csv", ErrorResponse.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private <T> ResponseEntity<T> post(String body, String contentType, Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        return restTemplate.exchange(
+                baseUrl + "/api/products/import",
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                responseType
+        );
+    }
+}
@@ -2,6 +2,7 @@ package sk.coderama.ai.controller;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import sk.coderama.ai.BaseIntegrationTest;
@@ -10,15 +11,35 @@ import sk.coderama.ai.dto.request.LoginRequest;
 import sk.coderama.ai.dto.request.RegisterRequest;
 import sk.coderama.ai.dto.request.UpdateUserRequest;
 import sk.coderama.ai.dto.response.ErrorResponse;
+import sk.coderama.ai.dto.response.CursorPage;
 import sk.coderama.ai.dto.response.JwtResponse;
+import sk.coderama.ai.dto.response.NotificationResponse;
+import sk.coderama.ai.dto.response.UserDeletionResponse;
 import sk.coderama.ai.dto.response.UserResponse;
-
+import sk.coderama.ai.entity.Notification;
+import sk.coderama.ai.entity.NotificationChannel;
+import sk.coderama.ai.entity.NotificationEventType;
+import sk.coderama.ai.entity.NotificationStatus;
+import sk.coderama.ai.entity.NotificationTemplate;
+import sk.coderama.ai.entity.Order;
+import sk.coderama.ai.entity.OrderItem;
+import sk.coderama.ai.entity.OrderStatus;
+import sk.coderama.ai.entity.Product;
+import sk.coderama.ai.entity.UserDeletionStatus;
+import sk.coderama.ai.notification.NotificationTemplateRegistry;
+import sk.coderama.ai.service.UserDeletionService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class UserControllerIntegrationTest extends BaseIntegrationTest {
 
+    @Autowired
+    private UserDeletionService userDeletionService;
+
     private String authToken;
 
     @BeforeEach
@@ -190,15 +211,111 @@ class UserControllerIntegrationTest extends BaseIntegrationTest {
 
         // When
         HttpEntity<?> deleteEntity = new HttpEntity<>(headers);
-        ResponseEntity<Void> response = restTemplate.exchange(
+        ResponseEntity<UserDeletionResponse> response = restTemplate.exchange(
                 baseUrl + "/api/users/" + userId,
                 HttpMethod.DELETE,
                 deleteEntity,
-                Void.class
+                UserDeletionResponse.class
         );
 
         // Then
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getBody().getStatus()).isEqualTo(UserDeletionStatus.PENDING);
+
+        ResponseEntity<ErrorResponse> getResponse = restTemplate.exchange(
+                baseUrl + "/api/users/" + userId,
+                HttpMethod.GET,
+                deleteEntity,
+                ErrorResponse.class
+        );
+        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldPurgeDeletedUserDataInBatches() {
+        // Given - a user with three orders, two items each, and a notification per order
+        String email = "purge+" + System.nanoTime() + "@test.com";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+
+        Long userId = restTemplate.exchange(
+                baseUrl + "/api/users",
+                HttpMethod.POST,
+                new HttpEntity<>(new CreateUserRequest("Purge User", email, "password123"), headers),
+                UserResponse.class
+        ).getBody().getId();
+
+        Product product = productRepository.save(Product.builder()
+                .name("Purge Product")
+                .price(BigDecimal.valueOf(5.00))
+                .stock(100)
+                .build());
+
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Order order = orderRepository.save(Order.builder()
+                    .userId(userId)
+                    .total(BigDecimal.valueOf(10.00))
+                    .status(OrderStatus.COMPLETED)
+                    .build());
+            orderIds.add(order.getId());
+            for (int j = 0; j < 2; j++) {
+                orderItemRepository.save(OrderItem.builder()
+                        .orderId(order.getId())
+                        .productId(product.getId())
+                        .quantity(1)
+                        .price(BigDecimal.valueOf(5.00))
+                        .build());
+            }
+            notificationRepository.save(Notification.builder()
+                    .orderId(order.getId())
+                    .userId(userId)
+                    .eventType(NotificationEventType.ORDER_COMPLETED)
+                    .template(NotificationTemplate.ORDER_COMPLETED)
+                    .templateParams(NotificationTemplateRegistry.encodeParams("10.00", "PAY-" + i))
+                    .notificationChannel(NotificationChannel.EMAIL)
+                    .status(NotificationStatus.SENT)
+                    .build());
+        }
+
+        // When - the user is deleted
+        ResponseEntity<UserDeletionResponse> deleteResponse = restTemplate.exchange(
+                baseUrl + "/api/users/" + userId,
+                HttpMethod.DELETE,
+                new HttpEntity<>(headers),
+                UserDeletionResponse.class
+        );
+
+        // Then - they are gone at once and their email can be used again, while their data waits for the purge
+        assertThat(deleteResponse.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(userRepository.findById(userId)).isEmpty();
+        assertThat(orderRepository.findAllById(orderIds)).hasSize(3);
+        ResponseEntity<UserResponse> reused = restTemplate.exchange(
+                baseUrl + "/api/users",
+                HttpMethod.POST,
+                new HttpEntity<>(new CreateUserRequest("Purge User Again", email, "password123"), headers),
+                UserResponse.class
+        );
+        assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        // When - the purge runs, in batches of two (application-test.properties)
+        userDeletionService.purgeDueDeletions();
+
+        // Then
+        ResponseEntity<UserDeletionResponse> deletion = restTemplate.exchange(
+                baseUrl + "/api/users/" + userId + "/deletion",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                UserDeletionResponse.class
+        );
+        assertThat(deletion.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(deletion.getBody().getStatus()).isEqualTo(UserDeletionStatus.COMPLETED);
+        assertThat(deletion.getBody().getNotificationsDeleted()).isEqualTo(3);
+        assertThat(deletion.getBody().getOrderItemsDeleted()).isEqualTo(6);
+        assertThat(deletion.getBody().getOrdersDeleted()).isEqualTo(3);
+        assertThat(deletion.getBody().getCompletedAt()).isNotNull();
+        assertThat(orderRepository.findAllById(orderIds)).isEmpty();
+        assertThat(productRepository.findById(product.getId())).isPresent();
     }
 
     @Test
@@ -246,4 +363,134 @@ class UserControllerIntegrationTest extends BaseIntegrationTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getErrors()).isNotEmpty();
     }
+
+    @Test
+    void shouldPageThroughUserNotificationsNewestFirst() {
+        // Given - a user with one order and five notifications about it
+        CreateUserRequest createRequest = new CreateUserRequest(
+                "Inbox User",
+                "inbox+" + System.nanoTime() + "@test.com",
+                "password123"
+        );
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+
+        Long userId = restTemplate.exchange(
+                baseUrl + "/api/users",
+                HttpMethod.POST,
+                new HttpEntity<>(createRequest, headers),
+                UserResponse.class
+        ).getBody().getId();
+
+        Order order = orderRepository.save(Order.builder()
+                .userId(userId)
+                .total(BigDecimal.valueOf(10.00))
+                .status(OrderStatus.COMPLETED)
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            notificationRepository.save(Notification.builder()
+                    .orderId(order.getId())
+                    .userId(userId)
+                    .eventType(NotificationEventType.ORDER_COMPLETED)
+                    .template(NotificationTemplate.ORDER_COMPLETED)
+                    .templateParams(NotificationTemplateRegistry.encodeParams("10.00", "PAY-" + i))
+                    .notificationChannel(NotificationChannel.EMAIL)
+                    .status(i == 0 ? NotificationStatus.PENDING : NotificationStatus.SENT)
+                    .build());
+        }
+
+        // When - walk the feed two at a time
+        List<NotificationResponse> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = baseUrl + "/api/users/" + userId + "/notifications?size=2"
+                    + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<List<NotificationResponse>> page = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    new HttpEntity<>(headers),
+                    new ParameterizedTypeReference<List<NotificationResponse>>() {}
+            );
+            assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+            seen.addAll(page.getBody());
+            cursor = page.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(5);
+        assertThat(seen).extracting(NotificationResponse::getId).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(seen.get(0).getMessage()).isEqualTo(
+                "Your order #" + order.getId() + " has been successfully completed! Total: $10.00. Payment Reference: PAY-4");
+
+        // And - filters are applied in the query
+        ResponseEntity<List<NotificationResponse>> pending = restTemplate.exchange(
+                baseUrl + "/api/users/" + userId + "/notifications?status=PENDING",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<NotificationResponse>>() {}
+        );
+        assertThat(pending.getBody()).hasSize(1);
+        assertThat(pending.getBody().get(0).getStatus()).isEqualTo(NotificationStatus.PENDING);
+        assertThat(pending.getHeaders().containsKey(CursorPage.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void shouldPageUsersByEmailPrefix() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+        for (String email : List.of("dir_c@test.com", "dir_a@test.com", "dir_b@test.com", "dirxa@test.com")) {
+            restTemplate.exchange(
+                    baseUrl + "/api/users",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new CreateUserRequest("Directory User", email, "password123"), headers),
+                    UserResponse.class
+            );
+        }
+
+        // When
+        ResponseEntity<List<UserResponse>> firstPage = restTemplate.exchange(
+                baseUrl + "/api/users?emailPrefix=dir_&size=2",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<UserResponse>>() {}
+        );
+        String cursor = firstPage.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+        ResponseEntity<List<UserResponse>> secondPage = restTemplate.exchange(
+                baseUrl + "/api/users?emailPrefix=dir_&size=2&cursor=" + cursor,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<UserResponse>>() {}
+        );
+
+        // Then - email order, and the underscore is not a wildcard
+        assertThat(firstPage.getBody()).extracting(UserResponse::getEmail)
+                .containsExactly("dir_a@test.com", "dir_b@test.com");
+        assertThat(cursor).isNotNull();
+        assertThat(secondPage.getBody()).extracting(UserResponse::getEmail).containsExactly("dir_c@test.com");
+        assertThat(secondPage.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    void shouldReturn404WhenGettingNotificationsOfNonExistentUser() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + authToken);
+
+        // When
+        ResponseEntity<ErrorResponse> response = restTemplate.exchange(
+                baseUrl + "/api/users/99999/notifications",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                ErrorResponse.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
 }
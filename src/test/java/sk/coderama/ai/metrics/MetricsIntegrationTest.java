@@ -0,0 +1,101 @@
+package sk.coderama.ai.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import sk.coderama.ai.BaseIntegrationTest;
+import sk.coderama.ai.config.SchedulingConfig;
+import sk.coderama.ai.entity.Order;
+import sk.coderama.ai.entity.OrderStatus;
+import sk.coderama.ai.entity.User;
+import sk.coderama.ai.service.OrderExpirationService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private OrderExpirationService orderExpirationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectProvider<SchedulingConfig> schedulingConfig;
+
+    @Test
+    void shouldExposePrometheusScrapeWithoutAuthenticationOnManagementPort() {
+        ResponseEntity<String> response = restTemplate.getForEntity(managementUrl + "/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("order_payments_total{application=\"ai\",outcome=\"failure\"}")
+                .contains("event_handler_seconds_bucket{application=\"ai\",binding=\"orderCreated\"");
+    }
+
+    @Test
+    void shouldNotServePrometheusScrapeOnApplicationPort() {
+        ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isFalse();
+        assertThat(response.getBody()).doesNotContain("hikaricp_connections");
+    }
+
+    @Test
+    void shouldRecordExpirationLatencyBatchAndPublish() {
+        // Given - an order created 20 minutes ago and never processed
+        User user = userRepository.save(User.builder()
+                .name("Metrics User")
+                .email("metrics+" + System.nanoTime() + "@test.com")
+                .password("password123")
+                .build());
+        Order order = orderRepository.save(Order.builder()
+                .userId(user.getId())
+                .total(BigDecimal.valueOf(10.00))
+                .status(OrderStatus.PENDING)
+                .build());
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(20);
+        jdbcTemplate.update("UPDATE orders SET created_at = ?, updated_at = ? WHERE id = ?",
+                createdAt, createdAt, order.getId());
+        String before = scrape();
+
+        // When
+        orderExpirationService.expireOldOrders();
+
+        // Then
+        String after = scrape();
+        String transition = "order_lifecycle_transition_seconds_count{application=\"ai\",from=\"PENDING\",to=\"EXPIRED\"}";
+        assertThat(sample(after, transition)).isGreaterThanOrEqualTo(sample(before, transition) + 1);
+        // Fifteen minutes is the top lifecycle bucket, so a 20 minute old order lands above it
+        String fastExpiry = "order_lifecycle_total_seconds_bucket{application=\"ai\",outcome=\"EXPIRED\",le=\"900.0\"}";
+        assertThat(sample(after, fastExpiry)).isEqualTo(sample(before, fastExpiry));
+
+        // Exactly this run: the test profile sets spring.task.scheduling.enabled=false, so no scheduled job runs
+        String batches = "order_expiration_batch_orders_count{application=\"ai\"}";
+        assertThat(schedulingConfig.getIfAvailable()).isNull();
+        assertThat(sample(after, batches)).isEqualTo(sample(before, batches) + 1);
+
+        String published = "event_publish_seconds_count{application=\"ai\",binding=\"orderExpired\",outcome=\"sent\"}";
+        assertThat(sample(after, published)).isGreaterThanOrEqualTo(sample(before, published) + 1);
+    }
+
+    private String scrape() {
+        return restTemplate.getForObject(managementUrl + "/actuator/prometheus", String.class);
+    }
+
+    // Value of one sample line, or 0 if the series has not been written yet
+    private static double sample(String scrape, String series) {
+        return scrape.lines()
+                .filter(line -> line.startsWith(series + " "))
+                .mapToDouble(line -> Double.parseDouble(line.substring(series.length() + 1).trim()))
+                .findFirst()
+                .orElse(0);
+    }
+}
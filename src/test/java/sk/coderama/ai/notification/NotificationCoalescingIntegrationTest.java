@@ -0,0 +1,92 @@
+package sk.coderama.ai.notification;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import sk.coderama.ai.BaseIntegrationTest;
+import sk.coderama.ai.entity.Notification;
+import sk.coderama.ai.entity.NotificationTemplate;
+import sk.coderama.ai.entity.Order;
+import sk.coderama.ai.entity.OrderStatus;
+import sk.coderama.ai.entity.User;
+import sk.coderama.ai.event.OrderExpiredEvent;
+import sk.coderama.ai.handler.OrderExpiredHandler;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "notification.coalescing.enabled=true",
+        "notification.coalescing.window=1h",
+        "notification.coalescing.max-size=3"
+})
+class NotificationCoalescingIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private OrderExpiredHandler orderExpiredHandler;
+
+    @Autowired
+    private NotificationCoalescer notificationCoalescer;
+
+    @Autowired
+    private NotificationTemplateRegistry templateRegistry;
+
+    @Test
+    @Transactional
+    void shouldMergeExpiredOrdersOfOneUserIntoDigest() {
+        // Given - a user with four pending orders
+        User user = userRepository.save(User.builder()
+                .name("Digest User")
+                .email("digest+" + System.nanoTime() + "@test.com")
+                .password("irrelevant")
+                .build());
+
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            orderIds.add(orderRepository.save(Order.builder()
+                    .userId(user.getId())
+                    .total(BigDecimal.valueOf(10.00))
+                    .status(OrderStatus.EXPIRED)
+                    .build()).getId());
+        }
+
+        // When - all four expire; the window holds three, the last one stays buffered until flushed
+        for (Long orderId : orderIds) {
+            orderExpiredHandler.handleOrderExpired(OrderExpiredEvent.builder()
+                    .eventId("evt-" + orderId)
+                    .orderId(orderId)
+                    .userId(user.getId())
+                    .previousStatus(OrderStatus.PENDING)
+                    .expiredAt(LocalDateTime.now())
+                    .reason("Order not processed within 10 minutes")
+                    .build());
+        }
+        assertThat(notificationRepository.findByUserId(user.getId())).hasSize(1);
+
+        notificationCoalescer.flushAll();
+
+        // Then - one digest for the first three orders and a regular notification for the fourth
+        List<Notification> notifications = new ArrayList<>(notificationRepository.findByUserId(user.getId()));
+        notifications.sort(Comparator.comparing(Notification::getId));
+        assertThat(notifications).hasSize(2);
+
+        Notification digest = notifications.get(0);
+        assertThat(digest.getTemplate()).isEqualTo(NotificationTemplate.ORDER_EXPIRED_DIGEST);
+        assertThat(digest.getDigestOrderIds()).containsExactlyElementsOf(orderIds.subList(0, 3));
+        assertThat(templateRegistry.render(digest)).isEqualTo(
+                "3 of your orders have expired, including order #" + orderIds.get(0)
+                        + ". Reason: Order not processed within 10 minutes");
+
+        Notification single = notifications.get(1);
+        assertThat(single.getTemplate()).isEqualTo(NotificationTemplate.ORDER_EXPIRED);
+        assertThat(single.getOrderId()).isEqualTo(orderIds.get(3));
+        assertThat(single.getDigestOrderIds()).isEmpty();
+        assertThat(notificationCoalescer.pendingUsers()).isZero();
+    }
+}
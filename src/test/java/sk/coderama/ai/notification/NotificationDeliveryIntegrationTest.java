@@ -0,0 +1,137 @@
+package sk.coderama.ai.notification;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import sk.coderama.ai.BaseIntegrationTest;
+import sk.coderama.ai.entity.Notification;
+import sk.coderama.ai.entity.NotificationChannel;
+import sk.coderama.ai.entity.NotificationEventType;
+import sk.coderama.ai.entity.NotificationStatus;
+import sk.coderama.ai.entity.NotificationTemplate;
+import sk.coderama.ai.entity.Order;
+import sk.coderama.ai.entity.OrderStatus;
+import sk.coderama.ai.entity.User;
+import sk.coderama.ai.service.NotificationDeliveryService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+
+@TestPropertySource(properties = {
+        "notification.delivery.max-attempts=2",
+        "notification.delivery.backoff-initial=0s"
+})
+class NotificationDeliveryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private NotificationDeliveryService notificationDeliveryService;
+
+    @MockitoSpyBean
+    private SmsNotificationSender smsNotificationSender;
+
+    @Test
+    void shouldDeliverPendingNotificationsAndRetryFailuresUntilFailed() {
+        // Given - one pending email and one pending SMS whose gateway is down
+        User user = userRepository.save(User.builder()
+                .name("Delivery User")
+                .email("delivery+" + System.nanoTime() + "@test.com")
+                .password("irrelevant")
+                .build());
+        Order order = orderRepository.save(Order.builder()
+                .userId(user.getId())
+                .total(BigDecimal.valueOf(10.00))
+                .status(OrderStatus.EXPIRED)
+                .build());
+
+        Notification email = notificationRepository.save(pending(user, order, NotificationChannel.EMAIL));
+        Notification sms = notificationRepository.save(pending(user, order, NotificationChannel.SMS));
+        doThrow(new IllegalStateException("SMS gateway unavailable"))
+                .when(smsNotificationSender).send(any(Notification.class), anyString());
+
+        // When - first pass
+        notificationDeliveryService.deliverDueNotifications();
+
+        // Then - the email is sent, the SMS is rescheduled
+        assertThat(notificationRepository.findById(email.getId()).orElseThrow())
+                .satisfies(n -> {
+                    assertThat(n.getStatus()).isEqualTo(NotificationStatus.SENT);
+                    assertThat(n.getAttempts()).isEqualTo(1);
+                    assertThat(n.getNextAttemptAt()).isNull();
+                });
+        assertThat(notificationRepository.findById(sms.getId()).orElseThrow())
+                .satisfies(n -> {
+                    assertThat(n.getStatus()).isEqualTo(NotificationStatus.PENDING);
+                    assertThat(n.getAttempts()).isEqualTo(1);
+                    assertThat(n.getNextAttemptAt()).isNotNull();
+                    assertThat(n.getLastError()).isEqualTo("SMS gateway unavailable");
+                });
+
+        // When - second pass exhausts max-attempts
+        notificationDeliveryService.deliverDueNotifications();
+
+        // Then
+        assertThat(notificationRepository.findById(sms.getId()).orElseThrow())
+                .satisfies(n -> {
+                    assertThat(n.getStatus()).isEqualTo(NotificationStatus.FAILED);
+                    assertThat(n.getAttempts()).isEqualTo(2);
+                    assertThat(n.getNextAttemptAt()).isNull();
+                });
+        assertThat(notificationRepository.findById(email.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+    }
+
+    private static Notification pending(User user, Order order, NotificationChannel channel) {
+        return Notification.builder()
+                .orderId(order.getId())
+                .userId(user.getId())
+                .eventType(NotificationEventType.ORDER_EXPIRED)
+                .template(NotificationTemplate.ORDER_EXPIRED)
+                .templateParams(NotificationTemplateRegistry.encodeParams("PENDING", "test"))
+                .notificationChannel(channel)
+                .status(NotificationStatus.PENDING)
+                .build();
+    }
+
+    @Test
+    void shouldRequeueNotificationsThatFailedBeforeTheDeliveryWorker() {
+        // Given: a database at V17 with a FAILED row never attempted by the worker and one that used its attempts
+        String url = "jdbc:h2:mem:requeue_migration;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        migrate(url, "17");
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        String insert = """
+                INSERT INTO notifications (order_id, user_id, event_type, template_id, notification_channel, status, attempts)
+                SELECT id, user_id, 'ORDER_COMPLETED', 0, 'EMAIL', 'FAILED', ? FROM orders WHERE id = ?
+                """;
+        jdbc.update(insert, 0, 1L);
+        jdbc.update(insert, 8, 2L);
+
+        // When
+        migrate(url, "18");
+
+        // Then
+        List<Map<String, Object>> rows = jdbc.queryForList(
+                "SELECT status, next_attempt_at FROM notifications ORDER BY order_id");
+        assertThat(rows.get(0).get("status")).isEqualTo("PENDING");
+        assertThat(rows.get(0).get("next_attempt_at")).isNotNull();
+        assertThat(rows.get(1).get("status")).isEqualTo("FAILED");
+        assertThat(rows.get(1).get("next_attempt_at")).isNull();
+    }
+
+    private static void migrate(String url, String target) {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration")
+                .target(target)
+                .load()
+                .migrate();
+    }
+}
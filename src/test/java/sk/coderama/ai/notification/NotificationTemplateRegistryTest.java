@@ -0,0 +1,108 @@
+package sk.coderama.ai.notification;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import sk.coderama.ai.entity.NotificationTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationTemplateRegistryTest {
+
+    private final NotificationTemplateRegistry registry = new NotificationTemplateRegistry();
+
+    @Test
+    void shouldRenderLegacyTextVerbatim() {
+        String params = NotificationTemplateRegistry.encodeParams("Stored before templates existed {1}");
+
+        assertThat(registry.render(NotificationTemplate.LEGACY, 7L, params))
+                .isEqualTo("Stored before templates existed {1}");
+    }
+
+    @Test
+    void shouldRenderOrderCompleted() {
+        String params = NotificationTemplateRegistry.encodeParams("129.99", "PAY-123");
+
+        assertThat(registry.render(NotificationTemplate.ORDER_COMPLETED, 42L, params))
+                .isEqualTo("Your order #42 has been successfully completed! Total: $129.99. Payment Reference: PAY-123");
+    }
+
+    @Test
+    void shouldRenderOrderExpired() {
+        String params = NotificationTemplateRegistry.encodeParams("PENDING", "Payment not received");
+
+        assertThat(registry.render(NotificationTemplate.ORDER_EXPIRED, 42L, params))
+                .isEqualTo("Your order #42 has expired. Previous status: PENDING. Reason: Payment not received");
+    }
+
+    @Test
+    void shouldRenderOrderExpiredDigest() {
+        String params = NotificationTemplateRegistry.encodeParams(3, "Payment not received");
+
+        assertThat(registry.render(NotificationTemplate.ORDER_EXPIRED_DIGEST, 42L, params))
+                .isEqualTo("3 of your orders have expired, including order #42. Reason: Payment not received");
+    }
+
+    @ParameterizedTest
+    @EnumSource(NotificationTemplate.class)
+    void shouldLeaveNoPlaceholderUnfilled(NotificationTemplate template) {
+        String params = NotificationTemplateRegistry.encodeParams("a", "b", "c");
+
+        assertThat(registry.render(template, 1L, params)).doesNotContainPattern("\\{\\d+}");
+    }
+
+    @Test
+    void shouldRenderMissingParametersAsEmpty() {
+        assertThat(registry.render(NotificationTemplate.ORDER_EXPIRED, 5L, null))
+                .isEqualTo("Your order #5 has expired. Previous status: . Reason: ");
+    }
+
+    @Test
+    void shouldMigrateRenderedMessagesToTemplatesThatRenderTheSameText() {
+        // Given: a database at V6, with messages stored as rendered text
+        String url = "jdbc:h2:mem:template_migration;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        migrate(url, "6");
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        String completed = "Your order #1 has been successfully completed! Total: $129.99. Payment Reference: PAY-1";
+        String expired = "Your order #2 has expired. Previous status: PENDING. Reason: Payment timeout";
+        String custom = "A message written by hand";
+        insertNotification(jdbc, 1, "ORDER_COMPLETED", completed);
+        insertNotification(jdbc, 2, "ORDER_EXPIRED", expired);
+        insertNotification(jdbc, 3, "ORDER_EXPIRED", custom);
+
+        // When
+        migrate(url, "7");
+
+        // Then
+        List<Map<String, Object>> rows = jdbc.queryForList(
+                "SELECT order_id, template_id, template_params FROM notifications ORDER BY order_id");
+        assertThat(rows).extracting(row -> ((Number) row.get("template_id")).intValue()).containsExactly(1, 2, 0);
+        assertThat(rows).extracting(row -> registry.render(
+                        NotificationTemplate.fromId(((Number) row.get("template_id")).shortValue()),
+                        ((Number) row.get("order_id")).longValue(),
+                        (String) row.get("template_params")))
+                .containsExactly(completed, expired, custom);
+    }
+
+    private static void migrate(String url, String target) {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private static void insertNotification(JdbcTemplate jdbc, long orderId, String eventType, String message) {
+        jdbc.update("""
+                INSERT INTO notifications (order_id, user_id, event_type, message, notification_channel, status)
+                SELECT id, user_id, ?, ?, 'EMAIL', 'SENT' FROM orders WHERE id = ?
+                """, eventType, message, orderId);
+    }
+}
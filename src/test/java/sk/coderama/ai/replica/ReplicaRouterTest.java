@@ -0,0 +1,128 @@
+package sk.coderama.ai.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRouterTest {
+
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private final ReplicaRouter router = new ReplicaRouter(lagMonitor, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void replicaCaughtUpExceptForNewWrites() {
+        when(lagMonitor.isAvailable()).thenReturn(true);
+        when(lagMonitor.isWithinMaxLag()).thenReturn(true);
+        when(lagMonitor.hasReplayed(anyLong())).thenReturn(false);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldPinUserToPrimaryOnceWriteCommitsBeforeRequestEnds() {
+        // Given: a request of user 1 writes in a transaction
+        ReplicaRouter.Session writer = router.open(1L, null);
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(router.routeToReplica(false)).isFalse();
+        assertThat(readsFromReplica(1L)).isTrue();
+
+        // When: the transaction commits, while the writing request has not finished yet
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then: the user's next request already reads the primary; others still read the replica
+        assertThat(readsFromReplica(1L)).isFalse();
+        assertThat(readsFromReplica(2L)).isTrue();
+        router.close(writer);
+    }
+
+    @Test
+    void shouldNotPinUserToPrimaryWhenWriteRollsBack() {
+        ReplicaRouter.Session writer = router.open(1L, null);
+        TransactionSynchronizationManager.initSynchronization();
+        router.routeToReplica(false);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        router.close(writer);
+
+        assertThat(readsFromReplica(1L)).isTrue();
+    }
+
+    @Test
+    void shouldTimeWriteOutsideTransactionWhenRequestEnds() {
+        ReplicaRouter.Session writer = router.open(1L, null);
+        router.routeToReplica(false);
+        assertThat(readsFromReplica(1L)).isTrue();
+
+        router.close(writer);
+
+        assertThat(readsFromReplica(1L)).isFalse();
+    }
+
+    @Test
+    void shouldHandOutPositionOfCommittedWrite() {
+        when(lagMonitor.getNodeId()).thenReturn("node-a");
+        ReplicaRouter.Session writer = router.open(1L, null);
+        TransactionSynchronizationManager.initSynchronization();
+        router.routeToReplica(false);
+        assertThat(router.lastWrite(writer)).isNull();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        ReplicaRouter.WritePosition position = router.lastWrite(writer);
+        assertThat(position.node()).isEqualTo("node-a");
+        assertThat(ReplicaRouter.WritePosition.parse(position.toString())).isEqualTo(position);
+        router.close(writer);
+    }
+
+    @Test
+    void shouldReadPrimaryUntilReplicaHasWriteClientBrings() {
+        ReplicaRouter.WritePosition otherNodeWrite = new ReplicaRouter.WritePosition("node-b", 42L);
+        when(lagMonitor.hasReplayed("node-b", 42L)).thenReturn(false);
+        assertThat(readsFromReplica(1L, otherNodeWrite)).isFalse();
+
+        when(lagMonitor.hasReplayed("node-b", 42L)).thenReturn(true);
+        assertThat(readsFromReplica(1L, otherNodeWrite)).isTrue();
+    }
+
+    @Test
+    void shouldIgnoreMalformedWritePosition() {
+        assertThat(ReplicaRouter.WritePosition.parse(null)).isNull();
+        assertThat(ReplicaRouter.WritePosition.parse("node-b")).isNull();
+        assertThat(ReplicaRouter.WritePosition.parse(".42")).isNull();
+        assertThat(ReplicaRouter.WritePosition.parse("node-b.x")).isNull();
+        assertThat(ReplicaRouter.WritePosition.parse("node.b.-42"))
+                .isEqualTo(new ReplicaRouter.WritePosition("node.b", -42L));
+    }
+
+    // A read-only transaction of another request by the user, on its own thread
+    private boolean readsFromReplica(Long userId) {
+        return readsFromReplica(userId, null);
+    }
+
+    private boolean readsFromReplica(Long userId, ReplicaRouter.WritePosition clientWrite) {
+        return CompletableFuture.supplyAsync(() -> {
+            ReplicaRouter.Session session = router.open(userId, clientWrite);
+            try {
+                return router.routeToReplica(true);
+            } finally {
+                router.close(session);
+            }
+        }).join();
+    }
+}
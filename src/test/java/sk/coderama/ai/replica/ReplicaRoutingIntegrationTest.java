@@ -0,0 +1,222 @@
+package sk.coderama.ai.replica;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import sk.coderama.ai.BaseIntegrationTest;
+import sk.coderama.ai.dto.request.LoginRequest;
+import sk.coderama.ai.dto.request.RegisterRequest;
+import sk.coderama.ai.dto.request.UpdateUserRequest;
+import sk.coderama.ai.dto.response.JwtResponse;
+import sk.coderama.ai.dto.response.ProductResponse;
+import sk.coderama.ai.dto.response.UserResponse;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against two H2 databases, the usual test database as the primary and a second one as the replica. Nothing
+ * replicates between them: rows put only on the replica show which database served a read, and
+ * {@link #replicate(Duration)} copies the heartbeats over to play the part of replication.
+ */
+@TestPropertySource(properties = {
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "datasource.replica.username=sa",
+        "datasource.replica.password=",
+        "datasource.replica.max-lag=1m"
+})
+class ReplicaRoutingIntegrationTest extends BaseIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:ai_test_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final long REPLICA_ONLY_PRODUCT_ID = 900_001L;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private HttpHeaders alice;
+    private Long aliceId;
+    private HttpHeaders bob;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUpDatabasesAndUsers() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("DELETE FROM products WHERE id = ?", REPLICA_ONLY_PRODUCT_ID);
+        replica.update("INSERT INTO products (id, name, price, stock) VALUES (?, 'Replica only', 1.00, 1)",
+                REPLICA_ONLY_PRODUCT_ID);
+
+        JwtResponse aliceLogin = registerAndLogin("alice");
+        aliceId = aliceLogin.getUserId();
+        alice = bearer(aliceLogin);
+        bob = bearer(registerAndLogin("bob"));
+    }
+
+    @Test
+    void shouldServeReadOnlyTransactionsFromCaughtUpReplica() {
+        // Given
+        replicate(Duration.ZERO);
+
+        // When
+        ResponseEntity<ProductResponse> response = restTemplate.exchange(
+                baseUrl + "/api/products/" + REPLICA_ONLY_PRODUCT_ID, HttpMethod.GET, new HttpEntity<>(alice),
+                ProductResponse.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getName()).isEqualTo("Replica only");
+        // Outside a request the same read stays on the primary
+        assertThat(productRepository.findById(REPLICA_ONLY_PRODUCT_ID)).isEmpty();
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLags() {
+        // Given
+        replicate(Duration.ofMinutes(2));
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/products/" + REPLICA_ONLY_PRODUCT_ID, HttpMethod.GET, new HttpEntity<>(alice),
+                String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryUntilReplicaCatchesUp() {
+        // Given
+        replicate(Duration.ZERO);
+        double ownWriteReads = ownWriteReads();
+
+        // When: Alice renames herself; the replica has no users at all, so a write sent there would fail
+        ResponseEntity<UserResponse> update = restTemplate.exchange(baseUrl + "/api/users/" + aliceId,
+                HttpMethod.PUT, new HttpEntity<>(new UpdateUserRequest("Alice Renamed", null, null), alice),
+                UserResponse.class);
+        assertThat(update.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(update.getHeaders().getFirst(HttpHeaders.SET_COOKIE))
+                .startsWith(ReplicaSessionFilter.WRITE_COOKIE + "=" + replicaLagMonitor.getNodeId() + ".");
+
+        // Then: Alice reads her write from the primary, Bob reads the replica, which is missing it
+        ResponseEntity<UserResponse> aliceRead = restTemplate.exchange(baseUrl + "/api/users/" + aliceId,
+                HttpMethod.GET, new HttpEntity<>(alice), UserResponse.class);
+        assertThat(aliceRead.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(aliceRead.getBody().getName()).isEqualTo("Alice Renamed");
+        assertThat(ownWriteReads()).isEqualTo(ownWriteReads + 1);
+
+        ResponseEntity<String> bobRead = restTemplate.exchange(baseUrl + "/api/users/" + aliceId,
+                HttpMethod.GET, new HttpEntity<>(bob), String.class);
+        assertThat(bobRead.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        // Once the replica replays a heartbeat written after the update, Alice is back on the replica
+        replicate(Duration.ZERO);
+        ResponseEntity<String> aliceReadLater = restTemplate.exchange(baseUrl + "/api/users/" + aliceId,
+                HttpMethod.GET, new HttpEntity<>(alice), String.class);
+        assertThat(aliceReadLater.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldReadWriteMadeOnAnotherNodeFromPrimaryUntilReplicaHasIt() {
+        // Given: another node committed a write for Bob at its beat 2000, and the replica has its beat 1000
+        replicate(Duration.ZERO);
+        replicateOtherNode("node-b", 1_000);
+        HttpHeaders bobAfterWrite = new HttpHeaders();
+        bobAfterWrite.putAll(bob);
+        bobAfterWrite.add(HttpHeaders.COOKIE, ReplicaSessionFilter.WRITE_COOKIE + "=node-b.2000");
+
+        // When / Then: Bob reads the primary, where Alice's user exists
+        assertThat(getAlice(bobAfterWrite).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // Once the replica has node-b's beat 3000, Bob reads the replica, which has no users
+        replicateOtherNode("node-b", 3_000);
+        assertThat(getAlice(bobAfterWrite).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        // A position of a node whose heartbeat the replica has not returned keeps Bob on the primary
+        HttpHeaders bobAfterUnknownWrite = new HttpHeaders();
+        bobAfterUnknownWrite.putAll(bob);
+        bobAfterUnknownWrite.add(HttpHeaders.COOKIE, ReplicaSessionFilter.WRITE_COOKIE + "=node-c.1");
+        assertThat(getAlice(bobAfterUnknownWrite).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private ResponseEntity<String> getAlice(HttpHeaders headers) {
+        return restTemplate.exchange(baseUrl + "/api/users/" + aliceId, HttpMethod.GET, new HttpEntity<>(headers),
+                String.class);
+    }
+
+    // Puts another node's heartbeat on the replica and beats so this node reads it back
+    private void replicateOtherNode(String node, long beat) {
+        replica.update("DELETE FROM replica_heartbeats WHERE node_id = ?", node);
+        replica.update("INSERT INTO replica_heartbeats (node_id, beat, beat_at) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                node, beat);
+        replicaLagMonitor.heartbeat();
+    }
+
+    /**
+     * Beats once so this node's heartbeat row exists, copies the heartbeats to the replica as if it were
+     * {@code lag} behind, then beats again to read them back.
+     */
+    private void replicate(Duration lag) {
+        replicaLagMonitor.heartbeat();
+        replica.update("DELETE FROM replica_heartbeats");
+        for (Map<String, Object> row : primary.queryForList("SELECT node_id, beat, beat_at FROM replica_heartbeats")) {
+            replica.update("INSERT INTO replica_heartbeats (node_id, beat, beat_at) VALUES (?, ?, ?)",
+                    row.get("node_id"), ((Number) row.get("beat")).longValue() - lag.toNanos(), row.get("beat_at"));
+        }
+        replicaLagMonitor.heartbeat();
+    }
+
+    private double ownWriteReads() {
+        return meterRegistry.get("datasource.replica.reads").tag("reason", "own_write").counter().count();
+    }
+
+    private JwtResponse registerAndLogin(String name) {
+        String email = name + "+" + System.nanoTime() + "@replica.test";
+        restTemplate.postForEntity(baseUrl + "/api/auth/register",
+                new RegisterRequest(name, email, "password123"), UserResponse.class);
+        return restTemplate.postForEntity(baseUrl + "/api/auth/login",
+                new LoginRequest(email, "password123"), JwtResponse.class).getBody();
+    }
+
+    private static HttpHeaders bearer(JwtResponse login) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + login.getToken());
+        return headers;
+    }
+}
@@ -0,0 +1,60 @@
+package sk.coderama.ai.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import sk.coderama.ai.BaseIntegrationTest;
+import sk.coderama.ai.dto.request.LoginRequest;
+import sk.coderama.ai.dto.response.ErrorResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// One hashing thread and one queue slot; a hash at strength 14 takes long enough to hold both while the test looks
+@TestPropertySource(properties = {
+        "security.password-hashing.strength=14",
+        "security.password-hashing.threads=1",
+        "security.password-hashing.queue-capacity=1",
+        "security.password-hashing.max-wait=30s"
+})
+class PasswordHashingAdmissionIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Test
+    void shouldQueueLoginWhileHashingIsBusyAndRejectItWhenQueueIsFull() throws Exception {
+        // Given: another thread keeps the only hashing thread busy
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("password123"));
+        LoginRequest loginRequest = new LoginRequest("nobody@test.com", "password123");
+
+        // When: a first login takes the queue slot and a second one finds it full
+        CompletableFuture<ResponseEntity<ErrorResponse>> queued = CompletableFuture.supplyAsync(() ->
+                restTemplate.postForEntity(baseUrl + "/api/auth/login", loginRequest, ErrorResponse.class));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (passwordEncoder.getQueuedTasks() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(passwordEncoder.getQueuedTasks()).isEqualTo(1);
+
+        ResponseEntity<ErrorResponse> rejected = restTemplate.postForEntity(
+                baseUrl + "/api/auth/login",
+                loginRequest,
+                ErrorResponse.class
+        );
+
+        // Then: the second is turned away at once, the first waits its turn and is answered normally
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getBody()).isNotNull();
+        assertThat(rejected.getBody().getStatus()).isEqualTo(429);
+
+        assertThat(running.get(30, TimeUnit.SECONDS)).startsWith("$2a$14$");
+        assertThat(queued.get(30, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
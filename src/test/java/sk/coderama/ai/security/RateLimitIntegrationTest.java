@@ -0,0 +1,80 @@
+package sk.coderama.ai.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.*;
+import org.springframework.test.context.TestPropertySource;
+import sk.coderama.ai.BaseIntegrationTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.rules[0].method=GET",
+        "rate-limit.rules[0].path=/api/products/**",
+        "rate-limit.rules[0].capacity=3",
+        "rate-limit.rules[0].period=1h",
+        "rate-limit.rules[1].method=GET",
+        "rate-limit.rules[1].path=/api/auth/**",
+        "rate-limit.rules[1].capacity=1",
+        "rate-limit.rules[1].period=1h"
+})
+class RateLimitIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void shouldReturn429WithRetryAfterOnceUserExhaustsLimit() {
+        // Given
+        String token = jwtTokenProvider.generateToken(new UserPrincipal(9001L, "limited@test.com", null));
+
+        // When - three requests fit the bucket
+        for (int i = 0; i < 3; i++) {
+            assertThat(getProducts(token).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        ResponseEntity<String> limited = getProducts(token);
+
+        // Then
+        assertThat(limited.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(Long.parseLong(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isPositive();
+        assertThat(limited.getBody()).contains("Rate limit exceeded");
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerUserAndRoute() {
+        // Given - one user drains their bucket
+        String drained = jwtTokenProvider.generateToken(new UserPrincipal(9002L, "drained@test.com", null));
+        String other = jwtTokenProvider.generateToken(new UserPrincipal(9003L, "other@test.com", null));
+        for (int i = 0; i < 4; i++) {
+            getProducts(drained);
+        }
+
+        // Then - another user is unaffected, and routes without a rule are not limited
+        assertThat(getProducts(drained).getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(getProducts(other).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(get("/api/orders", drained).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldKeyAnonymousClientsOnForwardedAddressFromTrustedProxy() {
+        // Given - the test client connects from loopback, a trusted proxy, on behalf of one client
+        assertThat(getAuthFrom("203.0.113.10").getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        // Then - that client is limited, while another one behind the same proxy has its own bucket
+        assertThat(getAuthFrom("203.0.113.10").getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(getAuthFrom("203.0.113.11").getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private ResponseEntity<String> getAuthFrom(String clientIp) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", clientIp);
+        return restTemplate.exchange(baseUrl + "/api/auth/login", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private ResponseEntity<String> getProducts(String token) {
+        return get("/api/products", token);
+    }
+
+    private ResponseEntity<String> get(String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + token);
+        return restTemplate.exchange(baseUrl + path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
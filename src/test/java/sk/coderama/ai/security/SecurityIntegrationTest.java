@@ -3,6 +3,7 @@ package sk.coderama.ai.security;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.*;
+import org.springframework.security.core.userdetails.User;
 import sk.coderama.ai.BaseIntegrationTest;
 import sk.coderama.ai.dto.request.LoginRequest;
 import sk.coderama.ai.dto.request.RegisterRequest;
@@ -10,6 +11,8 @@ import sk.coderama.ai.dto.response.ErrorResponse;
 import sk.coderama.ai.dto.response.JwtResponse;
 import sk.coderama.ai.dto.response.UserResponse;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class SecurityIntegrationTest extends BaseIntegrationTest {
@@ -175,6 +178,39 @@ class SecurityIntegrationTest extends BaseIntegrationTest {
         assertThat(email).isEqualTo("security@test.com");
     }
 
+    @Test
+    void shouldEmbedUserIdInToken() {
+        // Given
+        Long userId = userRepository.findByEmail("security@test.com").orElseThrow().getId();
+
+        // When
+        Long tokenUserId = jwtTokenProvider.getUserIdFromToken(validToken);
+
+        // Then
+        assertThat(tokenUserId).isEqualTo(userId);
+    }
+
+    @Test
+    void shouldAcceptTokenIssuedWithoutUserIdClaim() {
+        // Given - a token from before the userId claim existed
+        String legacyToken = jwtTokenProvider.generateToken(
+                new User("security@test.com", "irrelevant", List.of()));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + legacyToken);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/api/users",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+        );
+
+        // Then
+        assertThat(jwtTokenProvider.getUserIdFromToken(legacyToken)).isNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
     @Test
     void shouldAllowAccessToSwaggerEndpoints() {
         // Swagger UI should be accessible without authentication
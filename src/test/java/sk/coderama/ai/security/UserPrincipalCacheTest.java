@@ -0,0 +1,70 @@
+package sk.coderama.ai.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import sk.coderama.ai.event.internal.UserChangedInternalEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPrincipalCacheTest {
+
+    private final List<String> loads = new ArrayList<>();
+    private final UserDetailsService userDetailsService = email -> {
+        loads.add(email);
+        return User.withUsername(email).password("hash").authorities("ROLE_USER").build();
+    };
+
+    @Test
+    void shouldServeCachedPrincipalWithinTtl() {
+        UserPrincipalCache cache = new UserPrincipalCache(userDetailsService, 10, Duration.ofMinutes(5));
+
+        cache.load("alice@test.com");
+        cache.load("alice@test.com");
+
+        assertThat(loads).containsExactly("alice@test.com");
+    }
+
+    @Test
+    void shouldReloadPrincipalOnceTtlElapsed() {
+        UserPrincipalCache cache = new UserPrincipalCache(userDetailsService, 10, Duration.ZERO);
+
+        cache.load("alice@test.com");
+        cache.load("alice@test.com");
+
+        assertThat(loads).containsExactly("alice@test.com", "alice@test.com");
+    }
+
+    @Test
+    void shouldReloadPrincipalAfterUserChanged() {
+        UserPrincipalCache cache = new UserPrincipalCache(userDetailsService, 10, Duration.ofMinutes(5));
+        cache.load("alice@test.com");
+
+        cache.onUserChanged(new UserChangedInternalEvent(this, 1L, "alice@test.com"));
+        cache.load("alice@test.com");
+
+        assertThat(loads).containsExactly("alice@test.com", "alice@test.com");
+    }
+
+    @Test
+    void shouldKeepCachingNewPrincipalsOnceFull() {
+        UserPrincipalCache cache = new UserPrincipalCache(userDetailsService, 2, Duration.ofMinutes(5));
+        cache.load("alice@test.com");
+        cache.load("bob@test.com");
+
+        // When: a third user arrives while both entries are live
+        cache.load("carol@test.com");
+        loads.clear();
+
+        // Then: carol was cached and one of the others made room for her
+        cache.load("carol@test.com");
+        assertThat(loads).isEmpty();
+        cache.load("alice@test.com");
+        cache.load("bob@test.com");
+        assertThat(loads).hasSizeBetween(1, 2);
+    }
+}
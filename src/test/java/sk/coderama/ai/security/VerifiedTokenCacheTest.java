@@ -0,0 +1,53 @@
+package sk.coderama.ai.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void shouldServeClaimsUntilTokenExpires() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims claims = claims("alice", NOW + 1_000);
+
+        cache.put("token-a", claims, NOW);
+
+        assertThat(cache.get("token-a", NOW)).isSameAs(claims);
+        assertThat(cache.get("token-a", NOW + 1_000)).isNull();
+    }
+
+    @Test
+    void shouldNotCacheTokenWithoutExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        cache.put("token-a", Jwts.claims().subject("alice").build(), NOW);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldKeepCachingNewTokensOnceFull() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put("token-a", claims("alice", NOW + 1_000), NOW);
+        cache.put("token-b", claims("bob", NOW + 1_000), NOW + 1);
+        cache.get("token-a", NOW + 2);
+
+        cache.put("token-c", claims("carol", NOW + 1_000), NOW + 3);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("token-a", NOW + 4)).isNotNull();
+        assertThat(cache.get("token-b", NOW + 4)).isNull();
+        assertThat(cache.get("token-c", NOW + 4).getSubject()).isEqualTo("carol");
+    }
+
+    private static Claims claims(String subject, long expiresAtMillis) {
+        return Jwts.claims().subject(subject).expiration(new Date(expiresAtMillis)).build();
+    }
+}
@@ -0,0 +1,41 @@
+package sk.coderama.ai.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sk.coderama.ai.BaseIntegrationTest;
+import sk.coderama.ai.dto.request.CreateUserRequest;
+import sk.coderama.ai.dto.response.UserResponse;
+import sk.coderama.ai.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "user.registered-emails.enabled=true")
+class RegisteredEmailsIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldAcceptEmailAgainAfterCreateUserRolledBack() {
+        // Given - createUser inserts the user inside a transaction that is then rolled back
+        CreateUserRequest request = new CreateUserRequest("Rolled Back", "rolled.back@test.com", "password123");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.createUser(request);
+            status.setRollbackOnly();
+        });
+        assertThat(userRepository.findByEmail("rolled.back@test.com")).isEmpty();
+
+        // When
+        UserResponse created = userService.createUser(request);
+
+        // Then - the rolled-back insert left nothing that refuses the address
+        assertThat(created.getEmail()).isEqualTo("rolled.back@test.com");
+        assertThat(userRepository.findByEmail("rolled.back@test.com")).isPresent();
+    }
+}
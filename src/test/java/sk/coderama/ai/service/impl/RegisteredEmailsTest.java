@@ -0,0 +1,56 @@
+package sk.coderama.ai.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegisteredEmailsTest {
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldRecordInsertedEmailOnlyOnceTransactionCommits() {
+        RegisteredEmails registeredEmails = new RegisteredEmails(true, 10, Duration.ofMinutes(10));
+        TransactionSynchronizationManager.initSynchronization();
+
+        registeredEmails.markTakenOnCommit("Alice@Test.com");
+        assertThat(registeredEmails.isTaken("alice@test.com")).isFalse();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(registeredEmails.isTaken("alice@test.com")).isTrue();
+    }
+
+    @Test
+    void shouldNotRecordEmailOfRolledBackRegistration() {
+        RegisteredEmails registeredEmails = new RegisteredEmails(true, 10, Duration.ofMinutes(10));
+        TransactionSynchronizationManager.initSynchronization();
+
+        registeredEmails.markTakenOnCommit("alice@test.com");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(registeredEmails.isTaken("alice@test.com")).isFalse();
+    }
+
+    @Test
+    void shouldKeepRecordingOnceFull() {
+        RegisteredEmails registeredEmails = new RegisteredEmails(true, 2, Duration.ofMinutes(10));
+        registeredEmails.markTaken("alice@test.com");
+        registeredEmails.markTaken("bob@test.com");
+
+        registeredEmails.markTaken("carol@test.com");
+
+        assertThat(registeredEmails.isTaken("carol@test.com")).isTrue();
+        assertThat(registeredEmails.isTaken("alice@test.com") && registeredEmails.isTaken("bob@test.com")).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package sk.coderama.ai.sqlstats;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlProfilerTest {
+
+    @Test
+    void shouldRecordOnlyTypesUnlessValuesAreEnabled() {
+        List<QueryInfo> query = query("select o.id from orders o where o.user_id = ?", 42L);
+
+        assertThat(SqlProfiler.parameters(query, false)).isEqualTo("[Long]");
+        assertThat(SqlProfiler.parameters(query, true)).isEqualTo("[42]");
+    }
+
+    @Test
+    void shouldMaskValuesComparedWithSensitiveColumns() {
+        List<QueryInfo> query = query(
+                "select u.id from users u where u.email = ? and u.id in (?, ?) and u.name like ? escape '\\'",
+                "alice@test.com", 1L, 2L, "Ali%");
+
+        assertThat(SqlProfiler.parameters(query, true)).isEqualTo("[***, 1, 2, 'Ali%']");
+    }
+
+    @Test
+    void shouldMaskInsertedValuesByColumnList() {
+        List<QueryInfo> query = query(
+                "insert into users (created_at,email,name,password) values (?,?,?,?)",
+                "2026-01-01", "bob@test.com", "Bob", "$2a$10$hash");
+
+        assertThat(SqlProfiler.parameters(query, true)).isEqualTo("['2026-01-01', ***, 'Bob', ***]");
+    }
+
+    @Test
+    void shouldMaskValuesOfSensitiveStatementWhenColumnIsUnknown() {
+        List<QueryInfo> query = query("select u.id from users u where lower(u.email) = lower(?)", "Carol@Test.com");
+
+        assertThat(SqlProfiler.parameters(query, true)).isEqualTo("[***]");
+    }
+
+    @Test
+    void shouldTruncateLongValues() {
+        List<QueryInfo> query = query("update products set description = ? where id = ?", "x".repeat(500), 7L);
+
+        assertThat(SqlProfiler.parameters(query, true)).isEqualTo("['" + "x".repeat(100) + "...', 7]");
+    }
+
+    private static List<QueryInfo> query(String sql, Object... values) {
+        QueryInfo query = new QueryInfo(sql);
+        List<ParameterSetOperation> operations = new ArrayList<>();
+        try {
+            for (int i = 0; i < values.length; i++) {
+                operations.add(new ParameterSetOperation(
+                        PreparedStatement.class.getMethod("setObject", int.class, Object.class),
+                        new Object[]{i + 1, values[i]}));
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        query.getParametersList().add(operations);
+        return List.of(query);
+    }
+}
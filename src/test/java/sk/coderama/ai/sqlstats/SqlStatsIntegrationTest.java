@@ -0,0 +1,133 @@
+package sk.coderama.ai.sqlstats;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import sk.coderama.ai.BaseIntegrationTest;
+import sk.coderama.ai.dto.request.LoginRequest;
+import sk.coderama.ai.dto.request.RegisterRequest;
+import sk.coderama.ai.dto.response.JwtResponse;
+import sk.coderama.ai.dto.response.UserResponse;
+import sk.coderama.ai.security.UserPrincipal;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every statement counts as slow and every request is traced
+@TestPropertySource(properties = {
+        "sql.profiling.enabled=true",
+        "sql.profiling.slow-threshold=0ms",
+        "sql.profiling.trace-sample-rate=1.0",
+        "security.admin-emails=" + SqlStatsIntegrationTest.ADMIN_EMAIL
+})
+class SqlStatsIntegrationTest extends BaseIntegrationTest {
+
+    static final String ADMIN_EMAIL = "Operator@SqlStats.test";
+
+    private HttpHeaders headers;
+    private HttpHeaders admin;
+    private Long userId;
+
+    @BeforeEach
+    void setUpAuth() {
+        String email = "sqlstats+" + System.nanoTime() + "@test.com";
+        restTemplate.postForEntity(baseUrl + "/api/auth/register",
+                new RegisterRequest("SQL Stats User", email, "password123"), UserResponse.class);
+        JwtResponse login = restTemplate.postForEntity(baseUrl + "/api/auth/login",
+                new LoginRequest(email, "password123"), JwtResponse.class).getBody();
+        userId = login.getUserId();
+        headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + login.getToken());
+        admin = new HttpHeaders();
+        admin.set("Authorization", "Bearer "
+                + jwtTokenProvider.generateToken(new UserPrincipal(9101L, "operator@sqlstats.test", null)));
+    }
+
+    @Test
+    void shouldReportStatementsPerEndpointWithSlowStatementsAndTraces() {
+        // Given
+        restTemplate.exchange(managementUrl + "/actuator/sqlstats", HttpMethod.DELETE, new HttpEntity<>(admin), Void.class);
+
+        // When
+        ResponseEntity<String> orders = restTemplate.exchange(baseUrl + "/api/orders/user/" + userId,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(orders.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // Then
+        JsonNode report = restTemplate.exchange(managementUrl + "/actuator/sqlstats", HttpMethod.GET,
+                new HttpEntity<>(admin), JsonNode.class).getBody();
+        JsonNode endpoint = find(report.get("endpoints"), "endpoint", "GET /api/orders/user/{userId}");
+        assertThat(endpoint).isNotNull();
+        assertThat(endpoint.get("requests").asLong()).isEqualTo(1);
+        assertThat(endpoint.get("statements").asLong()).isPositive();
+        assertThat(endpoint.get("timeMs").asDouble()).isPositive();
+
+        JsonNode trace = find(report.get("traces"), "endpoint", "GET /api/orders/user/{userId}");
+        assertThat(trace.get("status").asInt()).isEqualTo(200);
+        assertThat(trace.get("trace")).hasSize(endpoint.get("statements").asInt());
+        assertThat(trace.get("trace").toString()).contains("from orders");
+
+        // The user id is bound as a parameter of the orders query; only its type is kept
+        JsonNode slow = find(report.get("slowStatements"), "request", "GET /api/orders/user/" + userId);
+        assertThat(slow.get("sql").asText()).contains("from orders");
+        assertThat(slow.get("parameters").asText()).isEqualTo("[Long]");
+        assertThat(trace.get("trace").get(0).get("parameters").asText()).doesNotContain(userId.toString());
+    }
+
+    @Test
+    void shouldChangeTraceSampleRateAtRuntime() {
+        // When
+        restTemplate.exchange(managementUrl + "/actuator/sqlstats", HttpMethod.POST,
+                new HttpEntity<>(Map.of("traceSampleRate", 0.25), admin), Void.class);
+
+        // Then
+        JsonNode report = restTemplate.exchange(managementUrl + "/actuator/sqlstats", HttpMethod.GET,
+                new HttpEntity<>(admin), JsonNode.class).getBody();
+        assertThat(report.get("traceSampleRate").asDouble()).isEqualTo(0.25);
+
+        restTemplate.exchange(managementUrl + "/actuator/sqlstats", HttpMethod.POST,
+                new HttpEntity<>(Map.of("traceSampleRate", 1.0), admin), Void.class);
+    }
+
+    @Test
+    void shouldForbidSqlStatsToUsersWhoAreNotAdmins() {
+        // When
+        ResponseEntity<String> read = restTemplate.exchange(managementUrl + "/actuator/sqlstats", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        ResponseEntity<String> write = restTemplate.exchange(managementUrl + "/actuator/sqlstats", HttpMethod.POST,
+                new HttpEntity<>(Map.of("traceSampleRate", 0.0), headers), String.class);
+        ResponseEntity<String> reset = restTemplate.exchange(managementUrl + "/actuator/sqlstats", HttpMethod.DELETE,
+                new HttpEntity<>(headers), String.class);
+
+        // Then
+        assertThat(read.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(write.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(reset.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        JsonNode report = restTemplate.exchange(managementUrl + "/actuator/sqlstats", HttpMethod.GET,
+                new HttpEntity<>(admin), JsonNode.class).getBody();
+        assertThat(report.get("traceSampleRate").asDouble()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRequireAuthenticationForSqlStats() {
+        ResponseEntity<String> response = restTemplate.getForEntity(managementUrl + "/actuator/sqlstats", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private static JsonNode find(JsonNode array, String field, String value) {
+        for (JsonNode node : array) {
+            if (value.equals(node.get(field).asText())) {
+                return node;
+            }
+        }
+        return null;
+    }
+}